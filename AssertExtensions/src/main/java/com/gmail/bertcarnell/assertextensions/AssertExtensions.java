@@ -21,13 +21,23 @@
  */
 package com.gmail.bertcarnell.assertextensions;
 
+import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.ForkJoinPool;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Adds additional <code>Assert</code> methods to the JUnit implementation
@@ -37,6 +47,16 @@ import static org.junit.Assert.assertTrue;
  */
 public class AssertExtensions
 {
+    /**
+     * The number of elements on either side of the first mismatch that are printed when an array assert fails
+     */
+    private static final int ARRAY_MISMATCH_CONTEXT = 2;
+
+    /**
+     * The maximum number of elements of each kind that are listed when an assert on many elements fails
+     */
+    private static final int MAX_REPORTED_ELEMENTS = 10;
+
     /**
      * Prevent instantiation of this class.
      */
@@ -52,6 +72,10 @@ public class AssertExtensions
     
     /**
      * Cast a <code>Set</code> to an <code>ArrayList</code> of objects and test equality
+     * <p>
+     * The lists are compared in iteration order, so sets with the same elements in a different order fail.  Use
+     * {@link #assertSameElements(Collection, Collection)} to ignore the order.
+     * </p>
      * @param expected A <code>Set</code> of expected objects
      * @param actual A <code>Set</code> of actual objects for comparison to expected
      */
@@ -62,10 +86,32 @@ public class AssertExtensions
     
     /**
      * Assert that two <code>Lists</code> are equal, element by element
+     * <p>
+     * Lists that implement <code>RandomAccess</code> are compared by index.  Other lists, like <code>LinkedList</code>,
+     * are walked with a pair of iterators so that the comparison is linear in the size of the lists.
+     * </p>
      * @param expected the expected <code>List</code>
      * @param actual the actual <code>List</code>
      */
     public static void assertListEquals(List<?> expected, List<?> actual)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.LIST_EQUALS);
+        boolean passed = false;
+        try
+        {
+            doAssertListEquals(expected, actual);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.LIST_EQUALS, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertListEquals(List, List)
+     */
+    private static void doAssertListEquals(List<?> expected, List<?> actual)
     {
         if (expected == null && actual == null)
         {
@@ -77,12 +123,25 @@ public class AssertExtensions
             assertEquals("One object is null", expected, actual);
             return;
         }
-        assertEquals("Lists have unequal sizes", expected.size(), actual.size());
-        if (expected.size() > 0)
+        int size = expected.size();
+        assertEquals("Lists have unequal sizes", size, actual.size());
+        if (size > 0)
         {
-            for (int i = 0; i < expected.size(); i++)
+            if (expected instanceof RandomAccess && actual instanceof RandomAccess)
+            {
+                for (int i = 0; i < size; i++)
+                {
+                    assertEquals("At least one element of the lists are different", expected.get(i), actual.get(i));
+                }
+            }
+            else
             {
-                assertEquals("At least one element of the lists are different", expected.get(i), actual.get(i));
+                Iterator<?> expectedIterator = expected.iterator();
+                Iterator<?> actualIterator = actual.iterator();
+                while (expectedIterator.hasNext() && actualIterator.hasNext())
+                {
+                    assertEquals("At least one element of the lists are different", expectedIterator.next(), actualIterator.next());
+                }
             }
         }
     }
@@ -93,6 +152,24 @@ public class AssertExtensions
      * @param actual the actual <code>Set</code>
      */
     public static void assertSetEquals(Set<?> expected, Set<?> actual)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.SET_EQUALS);
+        boolean passed = false;
+        try
+        {
+            doAssertSetEquals(expected, actual);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.SET_EQUALS, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertSetEquals(Set, Set)
+     */
+    private static void doAssertSetEquals(Set<?> expected, Set<?> actual)
     {
         if (expected == null && actual == null)
         {
@@ -107,7 +184,14 @@ public class AssertExtensions
         assertEquals("Sets have unequal sizes", expected.size(), actual.size());
         if (expected.size() > 0)
         {
-            assertTrue("actual does not contain all of expected", actual.containsAll(expected));
+            if (sameOrder(expected, actual))
+            {
+                assertSortedSetEquals((SortedSet<?>) expected, (SortedSet<?>) actual);
+            }
+            else
+            {
+                assertTrue("actual does not contain all of expected", actual.containsAll(expected));
+            }
         }
     }
     
@@ -117,6 +201,24 @@ public class AssertExtensions
      * @param actual the actual <code>Map</code>
      */
     public static void assertMapEquals(Map<?, ?> expected, Map<?, ?> actual)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.MAP_EQUALS);
+        boolean passed = false;
+        try
+        {
+            doAssertMapEquals(expected, actual);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.MAP_EQUALS, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertMapEquals(Map, Map)
+     */
+    private static void doAssertMapEquals(Map<?, ?> expected, Map<?, ?> actual)
     {
         if (expected == null && actual == null)
         {
@@ -129,13 +231,674 @@ public class AssertExtensions
             return;
         }
         assertEquals("Sets have unequal sizes", expected.size(), actual.size());
-        if (expected.size() > 0)
+        if (expected.size() > 0 && sameOrder(expected, actual))
+        {
+            assertSortedMapEquals((SortedMap<?, ?>) expected, (SortedMap<?, ?>) actual);
+        }
+        else if (expected.size() > 0)
         {
             for (Entry<?,?> e : expected.entrySet())
             {
-                assertTrue("maps do not contain the same keys", actual.containsKey(e.getKey()));
-                assertEquals("maps do not have the same value for this key", e.getValue(), actual.get(e.getKey()));
+                // containsKey is only needed to tell a missing key from a null value
+                Object value = actual.get(e.getKey());
+                assertTrue("maps do not contain the same keys", value != null || actual.containsKey(e.getKey()));
+                assertEquals("maps do not have the same value for this key", e.getValue(), value);
+            }
+        }
+    }
+
+    /**
+     * private method to check if two sets or maps are sorted in the same order, so that they can be compared by
+     * walking both in order instead of looking up each element
+     *
+     * @param expected the expected <code>Set</code> or <code>Map</code>
+     * @param actual the actual <code>Set</code> or <code>Map</code>
+     * @return <code>true</code> if both are sorted by equal comparators, or both by the natural ordering
+     */
+    private static boolean sameOrder(Object expected, Object actual)
+    {
+        if (expected instanceof SortedSet && actual instanceof SortedSet)
+        {
+            return equalComparators(((SortedSet<?>) expected).comparator(), ((SortedSet<?>) actual).comparator());
+        }
+        else if (expected instanceof SortedMap && actual instanceof SortedMap)
+        {
+            return equalComparators(((SortedMap<?, ?>) expected).comparator(), ((SortedMap<?, ?>) actual).comparator());
+        }
+        return false;
+    }
+
+    /**
+     * @param expected the comparator of expected, or <code>null</code> for the natural ordering
+     * @param actual the comparator of actual, or <code>null</code> for the natural ordering
+     * @return <code>true</code> if the comparators are equal
+     */
+    private static boolean equalComparators(Comparator<?> expected, Comparator<?> actual)
+    {
+        return expected == null ? actual == null : expected.equals(actual);
+    }
+
+    /**
+     * private method to compare two sorted sets of the same size in one pass over both.  Elements are compared with the
+     * comparator of the sets, as <code>containsAll</code> does for a <code>TreeSet</code>.
+     *
+     * @param expected the expected <code>SortedSet</code>
+     * @param actual the actual <code>SortedSet</code>, sorted in the same order
+     */
+    private static void assertSortedSetEquals(SortedSet<?> expected, SortedSet<?> actual)
+    {
+        Comparator<?> comparator = expected.comparator();
+        Iterator<?> actualIterator = actual.iterator();
+        for (Object e : expected)
+        {
+            Object a = actualIterator.next();
+            if (compareSorted(comparator, e, a) != 0)
+            {
+                fail(String.format("actual does not contain all of expected; first difference in order expected:<%s> but was:<%s>",
+                        e, a));
+            }
+        }
+    }
+
+    /**
+     * private method to compare two sorted maps of the same size in one pass over both.  Keys are compared with the
+     * comparator of the maps, and values with <code>equals</code>.
+     *
+     * @param expected the expected <code>SortedMap</code>
+     * @param actual the actual <code>SortedMap</code>, sorted in the same order
+     */
+    private static void assertSortedMapEquals(SortedMap<?, ?> expected, SortedMap<?, ?> actual)
+    {
+        Comparator<?> comparator = expected.comparator();
+        Iterator<? extends Entry<?, ?>> actualIterator = actual.entrySet().iterator();
+        for (Entry<?, ?> e : expected.entrySet())
+        {
+            Entry<?, ?> a = actualIterator.next();
+            if (compareSorted(comparator, e.getKey(), a.getKey()) != 0)
+            {
+                fail(String.format("maps do not contain the same keys; first difference in order expected:<%s> but was:<%s>",
+                        e.getKey(), a.getKey()));
+            }
+            assertEquals("maps do not have the same value for key " + e.getKey(), e.getValue(), a.getValue());
+        }
+    }
+
+    /**
+     * @param comparator the comparator of a sorted set or map, or <code>null</code> for the natural ordering
+     * @param a the first element
+     * @param b the second element
+     * @return the comparison of the elements in the order of the set or map
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareSorted(Comparator comparator, Object a, Object b)
+    {
+        return comparator == null ? ((Comparable) a).compareTo(b) : comparator.compare(a, b);
+    }
+
+    /**
+     * Assert that two <code>Maps</code> are equal, reporting every difference instead of only the first
+     * <p>
+     * Expected is walked once with a single lookup per key, and actual is only walked again for extra keys when it has
+     * more keys than were matched.  The missing keys, extra keys, and changed values are all counted, and the first
+     * <code>maxReportedDifferences</code> of each are listed in one failure message.
+     * </p>
+     * @param expected the expected <code>Map</code>
+     * @param actual the actual <code>Map</code>
+     * @param maxReportedDifferences the number of missing keys, extra keys, and changed values to list in the message
+     */
+    public static void assertMapEquals(Map<?, ?> expected, Map<?, ?> actual, int maxReportedDifferences)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.MAP_EQUALS);
+        boolean passed = false;
+        try
+        {
+            doAssertMapEquals(expected, actual, maxReportedDifferences);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.MAP_EQUALS, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertMapEquals(Map, Map, int)
+     */
+    private static void doAssertMapEquals(Map<?, ?> expected, Map<?, ?> actual, int maxReportedDifferences)
+    {
+        if (expected == null && actual == null)
+        {
+            assertEquals("Both objects are null", expected, actual);
+            return;
+        }
+        else if (expected == null || actual == null)
+        {
+            assertEquals("One object is null", expected, actual);
+            return;
+        }
+        StringBuilder missing = new StringBuilder();
+        StringBuilder extra = new StringBuilder();
+        StringBuilder changed = new StringBuilder();
+        int missingCount = 0;
+        int extraCount = 0;
+        int changedCount = 0;
+        int matchedCount = 0;
+        for (Entry<?,?> e : expected.entrySet())
+        {
+            Object value = actual.get(e.getKey());
+            if (value == null && !actual.containsKey(e.getKey()))
+            {
+                appendOccurrence(missing, missingCount++, maxReportedDifferences, e.getKey(), 1);
+                continue;
+            }
+            matchedCount++;
+            if (e.getValue() == null ? value != null : !e.getValue().equals(value))
+            {
+                // only format the values that will be listed
+                if (changedCount < maxReportedDifferences)
+                {
+                    appendOccurrence(changed, changedCount, maxReportedDifferences,
+                            String.format("%s expected:<%s> but was:<%s>", e.getKey(), e.getValue(), value), 1);
+                }
+                changedCount++;
+            }
+        }
+        if (matchedCount < actual.size())
+        {
+            for (Object key : actual.keySet())
+            {
+                if (!expected.containsKey(key))
+                {
+                    appendOccurrence(extra, extraCount++, maxReportedDifferences, key, 1);
+                }
+            }
+        }
+        if (missingCount > 0 || extraCount > 0 || changedCount > 0)
+        {
+            fail(String.format("Maps are not equal; %d missing keys: [%s]%s; %d extra keys: [%s]%s; %d changed values: [%s]%s",
+                    missingCount, missing, moreElements(missingCount, maxReportedDifferences),
+                    extraCount, extra, moreElements(extraCount, maxReportedDifferences),
+                    changedCount, changed, moreElements(changedCount, maxReportedDifferences)));
+        }
+    }
+
+    /**
+     * Assert that two <code>Lists</code> are equal, element by element, comparing large lists in parallel in a shared
+     * <code>ForkJoinPool</code>
+     * <p>
+     * Lists with fewer than 65536 elements are compared on the calling thread with
+     * {@link #assertListEquals(List, List)}.  Larger lists are split across the pool, and the first difference stops
+     * the workers that are comparing later elements.  The failure always reports the lowest index that differs.  Lists
+     * that do not implement <code>RandomAccess</code> are copied to an array first.
+     * </p>
+     * @param expected the expected <code>List</code>
+     * @param actual the actual <code>List</code>
+     */
+    public static void assertListEqualsParallel(List<?> expected, List<?> actual)
+    {
+        assertListEqualsParallel(expected, actual, null);
+    }
+
+    /**
+     * Assert that two <code>Lists</code> are equal, element by element, comparing large lists in parallel
+     * <p>
+     * Lists with fewer than 65536 elements are compared on the calling thread with
+     * {@link #assertListEquals(List, List)}.  Larger lists are split across the pool, and the first difference stops
+     * the workers that are comparing later elements.  The failure always reports the lowest index that differs.  Lists
+     * that do not implement <code>RandomAccess</code> are copied to an array first.
+     * </p>
+     * @param expected the expected <code>List</code>
+     * @param actual the actual <code>List</code>
+     * @param pool the pool to compare the lists in, or <code>null</code> for a shared pool
+     */
+    public static void assertListEqualsParallel(List<?> expected, List<?> actual, ForkJoinPool pool)
+    {
+        if (expected == null || actual == null || expected.size() < ParallelComparison.PARALLEL_THRESHOLD)
+        {
+            assertListEquals(expected, actual);
+            return;
+        }
+        // inputs below the threshold are counted by the sequential assert
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.LIST_EQUALS_PARALLEL);
+        boolean passed = false;
+        try
+        {
+            doAssertListEqualsParallel(expected, actual, pool);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.LIST_EQUALS_PARALLEL, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertListEqualsParallel(List, List, ForkJoinPool)
+     */
+    private static void doAssertListEqualsParallel(List<?> expected, List<?> actual, ForkJoinPool pool)
+    {
+        assertEquals("Lists have unequal sizes", expected.size(), actual.size());
+        int index = ParallelComparison.firstListDifference(pool == null ? ParallelComparison.sharedPool() : pool,
+                expected, actual);
+        if (index >= 0)
+        {
+            assertEquals("At least one element of the lists are different at index " + index, expected.get(index),
+                    actual.get(index));
+        }
+    }
+
+    /**
+     * Assert that two <code>Maps</code> are equal, comparing large maps in parallel in a shared
+     * <code>ForkJoinPool</code>
+     * <p>
+     * Maps with fewer than 65536 entries are compared on the calling thread with
+     * {@link #assertMapEquals(Map, Map)}.  For larger maps, the entries of expected are copied to an array and split
+     * across the pool, with each worker looking up its keys in actual, so actual must be safe to read from several
+     * threads, and its <code>get</code> and <code>containsKey</code> must not modify it.  A
+     * <code>LinkedHashMap</code> in access order moves each key it looks up, so it must be copied, or compared with
+     * {@link #assertMapEquals(Map, Map)}.  The failure always reports the first entry, in the iteration order of
+     * expected, that differs.
+     * </p>
+     * @param expected the expected <code>Map</code>
+     * @param actual the actual <code>Map</code>
+     */
+    public static void assertMapEqualsParallel(Map<?, ?> expected, Map<?, ?> actual)
+    {
+        assertMapEqualsParallel(expected, actual, null);
+    }
+
+    /**
+     * Assert that two <code>Maps</code> are equal, comparing large maps in parallel
+     * <p>
+     * Maps with fewer than 65536 entries are compared on the calling thread with
+     * {@link #assertMapEquals(Map, Map)}.  For larger maps, the entries of expected are copied to an array and split
+     * across the pool, with each worker looking up its keys in actual, so actual must be safe to read from several
+     * threads, and its <code>get</code> and <code>containsKey</code> must not modify it.  A
+     * <code>LinkedHashMap</code> in access order moves each key it looks up, so it must be copied, or compared with
+     * {@link #assertMapEquals(Map, Map)}.  The failure always reports the first entry, in the iteration order of
+     * expected, that differs.
+     * </p>
+     * @param expected the expected <code>Map</code>
+     * @param actual the actual <code>Map</code>
+     * @param pool the pool to compare the maps in, or <code>null</code> for a shared pool
+     */
+    public static void assertMapEqualsParallel(Map<?, ?> expected, Map<?, ?> actual, ForkJoinPool pool)
+    {
+        if (expected == null || actual == null || expected.size() < ParallelComparison.PARALLEL_THRESHOLD)
+        {
+            assertMapEquals(expected, actual);
+            return;
+        }
+        // inputs below the threshold are counted by the sequential assert
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.MAP_EQUALS_PARALLEL);
+        boolean passed = false;
+        try
+        {
+            doAssertMapEqualsParallel(expected, actual, pool);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.MAP_EQUALS_PARALLEL, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertMapEqualsParallel(Map, Map, ForkJoinPool)
+     */
+    private static void doAssertMapEqualsParallel(Map<?, ?> expected, Map<?, ?> actual, ForkJoinPool pool)
+    {
+        assertEquals("Maps have unequal sizes", expected.size(), actual.size());
+        Entry<?, ?> e = ParallelComparison.firstMapDifference(pool == null ? ParallelComparison.sharedPool() : pool,
+                expected, actual);
+        if (e != null)
+        {
+            Object value = actual.get(e.getKey());
+            assertTrue("maps do not contain the same keys: " + e.getKey(), value != null || actual.containsKey(e.getKey()));
+            assertEquals("maps do not have the same value for key " + e.getKey(), e.getValue(), value);
+        }
+    }
+
+    /**
+     * Assert that two <code>Collections</code> contain the same elements the same number of times, in any order
+     * <p>
+     * The occurrences of each element are counted in a single <code>HashMap</code>, adding for expected and subtracting
+     * for actual, so the comparison is linear in the size of the collections and does not sort or copy them.  On failure,
+     * the message lists the elements missing from actual and the surplus elements in actual.
+     * </p>
+     * @param expected the expected <code>Collection</code>
+     * @param actual the actual <code>Collection</code>
+     */
+    public static void assertSameElements(Collection<?> expected, Collection<?> actual)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.SAME_ELEMENTS);
+        boolean passed = false;
+        try
+        {
+            doAssertSameElements(expected, actual);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.SAME_ELEMENTS, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertSameElements(Collection, Collection)
+     */
+    private static void doAssertSameElements(Collection<?> expected, Collection<?> actual)
+    {
+        if (expected == null && actual == null)
+        {
+            assertEquals("Both objects are null", expected, actual);
+            return;
+        }
+        else if (expected == null || actual == null)
+        {
+            assertEquals("One object is null", expected, actual);
+            return;
+        }
+        // only elements with a non-zero count are kept, so the map ends with just the differences
+        Map<Object, int[]> counts = new HashMap<>(Math.max(16, (int) (expected.size() / 0.75f) + 1));
+        for (Object o : expected)
+        {
+            addOccurrence(counts, o, 1);
+        }
+        for (Object o : actual)
+        {
+            addOccurrence(counts, o, -1);
+        }
+        if (!counts.isEmpty())
+        {
+            StringBuilder missing = new StringBuilder();
+            StringBuilder surplus = new StringBuilder();
+            int missingCount = 0;
+            int surplusCount = 0;
+            for (Entry<Object, int[]> e : counts.entrySet())
+            {
+                int count = e.getValue()[0];
+                if (count > 0)
+                {
+                    appendOccurrence(missing, missingCount++, MAX_REPORTED_ELEMENTS, e.getKey(), count);
+                }
+                else
+                {
+                    appendOccurrence(surplus, surplusCount++, MAX_REPORTED_ELEMENTS, e.getKey(), -count);
+                }
+            }
+            fail(String.format("Collections do not contain the same elements; missing from actual: [%s]%s; surplus in actual: [%s]%s",
+                    missing, moreElements(missingCount, MAX_REPORTED_ELEMENTS), surplus, moreElements(surplusCount, MAX_REPORTED_ELEMENTS)));
+        }
+    }
+
+    /**
+     * private method to count an occurrence of an element
+     *
+     * @param counts the count of each element
+     * @param element the element
+     * @param increment <code>1</code> for an expected element and <code>-1</code> for an actual element
+     */
+    private static void addOccurrence(Map<Object, int[]> counts, Object element, int increment)
+    {
+        int[] count = counts.get(element);
+        if (count == null)
+        {
+            counts.put(element, new int[] {increment});
+        }
+        else
+        {
+            count[0] += increment;
+            if (count[0] == 0)
+            {
+                counts.remove(element);
+            }
+        }
+    }
+
+    /**
+     * private method to list an element in a failure message
+     *
+     * @param sb the list of elements
+     * @param index the number of elements already in the list
+     * @param limit the number of elements to list
+     * @param element the element
+     * @param count the number of times the element is missing or surplus
+     */
+    private static void appendOccurrence(StringBuilder sb, int index, int limit, Object element, int count)
+    {
+        if (index >= limit)
+        {
+            return;
+        }
+        if (index > 0)
+        {
+            sb.append(", ");
+        }
+        sb.append(element);
+        if (count > 1)
+        {
+            sb.append(" (x").append(count).append(')');
+        }
+    }
+
+    /**
+     * @param count the number of differences found
+     * @param limit the number of differences listed
+     * @return a note of the differences that were not listed in the message
+     */
+    private static String moreElements(int count, int limit)
+    {
+        int listed = Math.max(limit, 0);
+        return count > listed ? String.format(" and %d more", count - listed) : "";
+    }
+
+    /**
+     * Assert that two <code>int</code> arrays are equal, element by element, without boxing the elements
+     * <p>
+     * On failure, the message reports the index of the first element that differs and the elements around it.
+     * </p>
+     * @param expected the expected array
+     * @param actual the actual array
+     */
+    public static void assertPrimitiveArrayEquals(int[] expected, int[] actual)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.PRIMITIVE_ARRAY_EQUALS);
+        boolean passed = false;
+        try
+        {
+            doAssertPrimitiveArrayEquals(expected, actual);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.PRIMITIVE_ARRAY_EQUALS, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertPrimitiveArrayEquals(int[], int[])
+     */
+    private static void doAssertPrimitiveArrayEquals(int[] expected, int[] actual)
+    {
+        if (expected == null || actual == null)
+        {
+            assertNullArrays(expected, actual);
+            return;
+        }
+        assertEquals("Arrays have unequal lengths", expected.length, actual.length);
+        int index = -1;
+        for (int i = 0; i < expected.length; i++)
+        {
+            if (expected[i] != actual[i])
+            {
+                index = i;
+                break;
+            }
+        }
+        if (index >= 0)
+        {
+            fail(createArrayMismatchMessage(expected, actual, index));
+        }
+    }
+
+    /**
+     * Assert that two <code>long</code> arrays are equal, element by element, without boxing the elements
+     * <p>
+     * On failure, the message reports the index of the first element that differs and the elements around it.
+     * </p>
+     * @param expected the expected array
+     * @param actual the actual array
+     */
+    public static void assertPrimitiveArrayEquals(long[] expected, long[] actual)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.PRIMITIVE_ARRAY_EQUALS);
+        boolean passed = false;
+        try
+        {
+            doAssertPrimitiveArrayEquals(expected, actual);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.PRIMITIVE_ARRAY_EQUALS, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertPrimitiveArrayEquals(long[], long[])
+     */
+    private static void doAssertPrimitiveArrayEquals(long[] expected, long[] actual)
+    {
+        if (expected == null || actual == null)
+        {
+            assertNullArrays(expected, actual);
+            return;
+        }
+        assertEquals("Arrays have unequal lengths", expected.length, actual.length);
+        int index = -1;
+        for (int i = 0; i < expected.length; i++)
+        {
+            if (expected[i] != actual[i])
+            {
+                index = i;
+                break;
+            }
+        }
+        if (index >= 0)
+        {
+            fail(createArrayMismatchMessage(expected, actual, index));
+        }
+    }
+
+    /**
+     * Assert that two <code>double</code> arrays are equal, element by element, without boxing the elements
+     * <p>
+     * Elements are compared the same way as <code>Arrays.equals(double[], double[])</code>, so <code>NaN</code> is equal
+     * to <code>NaN</code> and <code>0.0</code> is not equal to <code>-0.0</code>.  On failure, the message reports the
+     * index of the first element that differs and the elements around it.
+     * </p>
+     * @param expected the expected array
+     * @param actual the actual array
+     */
+    public static void assertPrimitiveArrayEquals(double[] expected, double[] actual)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.PRIMITIVE_ARRAY_EQUALS);
+        boolean passed = false;
+        try
+        {
+            doAssertPrimitiveArrayEquals(expected, actual);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.PRIMITIVE_ARRAY_EQUALS, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertPrimitiveArrayEquals(double[], double[])
+     */
+    private static void doAssertPrimitiveArrayEquals(double[] expected, double[] actual)
+    {
+        if (expected == null || actual == null)
+        {
+            assertNullArrays(expected, actual);
+            return;
+        }
+        assertEquals("Arrays have unequal lengths", expected.length, actual.length);
+        int index = -1;
+        for (int i = 0; i < expected.length; i++)
+        {
+            // compare the values first so that the bit comparison is only needed for NaN and signed zeros
+            if (expected[i] != actual[i] || expected[i] == 0.0)
+            {
+                if (Double.doubleToLongBits(expected[i]) != Double.doubleToLongBits(actual[i]))
+                {
+                    index = i;
+                    break;
+                }
+            }
+        }
+        if (index >= 0)
+        {
+            fail(createArrayMismatchMessage(expected, actual, index));
+        }
+    }
+
+    /**
+     * Assert the null cases of the array comparisons with the same rules as the <code>Collection</code> comparisons
+     * @param expected the expected array, which may be <code>null</code>
+     * @param actual the actual array, which may be <code>null</code>
+     */
+    private static void assertNullArrays(Object expected, Object actual)
+    {
+        if (expected == null && actual == null)
+        {
+            assertEquals("Both objects are null", expected, actual);
+        }
+        else
+        {
+            assertEquals("One object is null", expected, actual);
+        }
+    }
+
+    /**
+     * private method to create the message for two arrays that differ.  Only called when the assert has failed, so
+     * the few elements around the mismatch are boxed for display.
+     *
+     * @param expected the expected primitive array
+     * @param actual the actual primitive array
+     * @param index the index of the first element that differs
+     * @return the message
+     */
+    private static String createArrayMismatchMessage(Object expected, Object actual, int index)
+    {
+        int from = Math.max(0, index - ARRAY_MISMATCH_CONTEXT);
+        int to = Math.min(Array.getLength(expected), index + ARRAY_MISMATCH_CONTEXT + 1);
+        return String.format("Arrays first differ at index %d; expected elements [%d..%d] %s but were %s", index,
+                from, to - 1, describeArrayElements(expected, from, to), describeArrayElements(actual, from, to));
+    }
+
+    /**
+     * private method to print a range of array elements
+     *
+     * @param array a primitive array
+     * @param from the first index to print
+     * @param to one past the last index to print
+     * @return the elements in the form <code>[a, b, c]</code>
+     */
+    private static String describeArrayElements(Object array, int from, int to)
+    {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = from; i < to; i++)
+        {
+            if (i > from)
+            {
+                sb.append(", ");
             }
+            sb.append(Array.get(array, i));
         }
+        return sb.append(']').toString();
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+/**
+ * Told when each call to an instrumented assert starts and finishes.  Added with
+ * {@link AssertionMetrics#addListener(AssertionListener)}, and called whether or not metrics are enabled.
+ * <p>
+ * The listener is called on the thread that runs the assert, when the assert starts and again after it has finished
+ * and before a failure is thrown, so it should return quickly and must not throw.  Calls to an assert may be nested,
+ * such as an assert run inside <code>assertThrows</code>, and then each start is matched by the next finish on the
+ * same thread in last in, first out order.  A call that was already running when the listener was added is
+ * reported as finished without having been reported as started.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public interface AssertionListener
+{
+    /**
+     * Called before each call to an assert runs
+     *
+     * @param methodName the name of the assert method, like <code>assertMapEquals</code>
+     */
+    public void assertionStarted(String methodName);
+
+    /**
+     * Called after each call to an assert
+     *
+     * @param methodName the name of the assert method, like <code>assertMapEquals</code>
+     * @param size the number of elements in the expected input, <code>1</code> for asserts on a single value, or
+     * <code>-1</code> if it is not known
+     * @param durationNanos the duration of the call in nanoseconds
+     * @param failed <code>true</code> if the assert failed
+     */
+    public void assertionCompleted(String methodName, long size, long durationNanos, boolean failed);
+}
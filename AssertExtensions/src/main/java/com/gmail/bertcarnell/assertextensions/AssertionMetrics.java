@@ -0,0 +1,582 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Optional counters of the calls to each assert method, for finding the asserts that a test suite spends its time in.
+ * <p>
+ * Metrics are off by default.  Then each instrumented assert reads one <code>volatile</code> field and takes one branch
+ * when it starts, and takes one more branch on the value it got when it ends.  When metrics are enabled with
+ * {@link #setEnabled(boolean)}, the calls and failures of each assert method are counted.  When timing is also
+ * enabled with {@link #setTimingEnabled(boolean)}, the total time and a histogram of durations are kept as well.
+ * Counters are striped by thread and padded, so that threads running asserts in parallel do not contend on the same
+ * cache line.  The counters are allocated the first time metrics are recorded.
+ * </p>
+ * <p>
+ * The counters are read with {@link #snapshot()} or through JMX once {@link #registerMBean()} has been called.
+ * A snapshot taken while asserts are running may not include the calls in progress.
+ * </p>
+ * <p>
+ * An {@link AssertionListener} added with {@link #addListener(AssertionListener)} is told when each call starts and
+ * finishes, for example to record it as a Java Flight Recorder event.  Listeners are called whether or not metrics are
+ * enabled.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public final class AssertionMetrics
+{
+    /**
+     * The name the <code>MXBean</code> is registered with
+     */
+    public static final String MBEAN_NAME = "com.gmail.bertcarnell.assertextensions:type=AssertionMetrics";
+
+    /**
+     * The number of histogram buckets.  Bucket <code>i</code> counts the calls that took from <code>2^i</code> up
+     * to <code>2^(i+1)</code> nanoseconds.
+     */
+    public static final int HISTOGRAM_BUCKETS = 64;
+
+    /**
+     * The value returned by {@link #begin(Metric)} when metrics are disabled and there are no listeners.
+     * {@link #end(Metric, long, boolean, Object)} returns at once when it is given this value, without reading any
+     * other state.
+     */
+    static final long DISABLED = Long.MIN_VALUE;
+
+    /**
+     * The value returned by {@link #begin(Metric)} when metrics are enabled without timing and there are no
+     * listeners.  The call is counted but not timed.
+     */
+    static final long NOT_TIMED = Long.MIN_VALUE + 1;
+
+    /**
+     * Passed to {@link #end(Metric, long, boolean, Object)} by the asserts that compare one pair of values
+     */
+    static final Object SCALAR = new Object();
+
+    /**
+     * The assert methods that are counted
+     */
+    enum Metric
+    {
+        LIST_EQUALS("assertListEquals"),
+        LIST_EQUALS_PARALLEL("assertListEqualsParallel"),
+        SET_EQUALS("assertSetEquals"),
+        MAP_EQUALS("assertMapEquals"),
+        MAP_EQUALS_PARALLEL("assertMapEqualsParallel"),
+        SAME_ELEMENTS("assertSameElements"),
+        PRIMITIVE_ARRAY_EQUALS("assertPrimitiveArrayEquals"),
+        EQUALS_LRE("assertEqualsLRE"),
+        MAP_EQUALS_LRE("assertMapEqualsLRE"),
+        DEEP_EQUALS_LRE("assertDeepEqualsLRE"),
+        EQUALS_ULPS("assertEqualsUlps"),
+        BINARY_EQUALS_LRE("assertBinaryEqualsLRE"),
+        TEXT_EQUALS_LRE("assertTextEqualsLRE"),
+        THROWS("assertThrows"),
+        THROWS_SPECIFIC_EXCEPTION("assertThrowsSpecificException"),
+        THROWS_CONCURRENTLY("assertThrowsConcurrently"),
+        THROWS_ASYNC("assertThrowsAsync"),
+        THROWS_FOR_ALL("assertThrowsForAll"),
+        CONSTRUCTOR_THROWS("assertConstuctorThrows");
+
+        final String methodName;
+
+        Metric(String methodName)
+        {
+            this.methodName = methodName;
+        }
+    }
+
+    /**
+     * Bits of {@link #state}
+     */
+    private static final int COUNTING = 1;
+    private static final int TIMING = 2;
+    private static final int LISTENING = 4;
+
+    private static boolean enabled;
+    private static boolean timingEnabled;
+    private static final List<AssertionListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * The bits of what is recorded, which is zero when nothing is, so that an assert reads a single field when it
+     * starts.  It is only written while holding the class lock.
+     */
+    private static volatile int state;
+
+    /**
+     * Prevent instantiation of this class.
+     */
+    private AssertionMetrics() {}
+
+    /**
+     * @return <code>true</code> if calls to the asserts are counted
+     */
+    public static boolean isEnabled()
+    {
+        return (state & COUNTING) != 0;
+    }
+
+    /**
+     * @param enabled <code>true</code> to count calls to the asserts
+     */
+    public static synchronized void setEnabled(boolean enabled)
+    {
+        AssertionMetrics.enabled = enabled;
+        updateState();
+    }
+
+    /**
+     * @return <code>true</code> if calls to the asserts are timed when metrics are enabled
+     */
+    public static synchronized boolean isTimingEnabled()
+    {
+        return timingEnabled;
+    }
+
+    /**
+     * @param timingEnabled <code>true</code> to time calls to the asserts when metrics are enabled
+     */
+    public static synchronized void setTimingEnabled(boolean timingEnabled)
+    {
+        AssertionMetrics.timingEnabled = timingEnabled;
+        updateState();
+    }
+
+    /**
+     * Add a listener that is told when each call to the asserts starts and finishes, whether or not metrics are
+     * enabled.  Calls are timed while there is a listener, even if timing is not enabled.
+     *
+     * @param listener the listener
+     */
+    public static synchronized void addListener(AssertionListener listener)
+    {
+        if (listener == null)
+        {
+            throw new IllegalArgumentException("listener must not be null");
+        }
+        LISTENERS.add(listener);
+        updateState();
+    }
+
+    /**
+     * @param listener a listener added by {@link #addListener(AssertionListener)}
+     */
+    public static synchronized void removeListener(AssertionListener listener)
+    {
+        LISTENERS.remove(listener);
+        updateState();
+    }
+
+    /**
+     * Fold the settings into {@link #state}.  Called while holding the class lock.
+     */
+    private static void updateState()
+    {
+        state = (enabled ? COUNTING : 0) | (enabled && timingEnabled ? TIMING : 0)
+                | (LISTENERS.isEmpty() ? 0 : LISTENING);
+    }
+
+    /**
+     * Set every counter to zero
+     */
+    public static void reset()
+    {
+        AtomicLongArray counters = Counters.VALUES;
+        for (int i = 0; i < counters.length(); i++)
+        {
+            counters.set(i, 0);
+        }
+    }
+
+    /**
+     * @return the metrics of each assert method, in a map from the method name
+     */
+    public static Map<String, Snapshot> snapshot()
+    {
+        Map<String, Snapshot> snapshots = new LinkedHashMap<>();
+        for (Metric metric : Metric.values())
+        {
+            snapshots.put(metric.methodName, Counters.snapshot(metric));
+        }
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    /**
+     * Register an {@link AssertionMetricsMXBean} with the platform <code>MBeanServer</code> under {@link #MBEAN_NAME}.
+     * Calling this again does nothing.
+     *
+     * @return the name of the <code>MXBean</code>
+     * @throws JMException if the <code>MXBean</code> cannot be registered
+     */
+    public static ObjectName registerMBean() throws JMException
+    {
+        ObjectName name = new ObjectName(MBEAN_NAME);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (!server.isRegistered(name))
+        {
+            try
+            {
+                server.registerMBean(new MXBean(), name);
+            }
+            catch (InstanceAlreadyExistsException e)
+            {
+                // registered by another thread
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Start recording a call to an assert.  Each instrumented assert keeps its logic in a private method, and the
+     * public method only records the call with
+     * <pre>
+     * long start = AssertionMetrics.begin(metric);
+     * boolean passed = false;
+     * try
+     * {
+     *     doAssert(expected, actual);
+     *     passed = true;
+     * }
+     * finally
+     * {
+     *     AssertionMetrics.end(metric, start, !passed, expected);
+     * }
+     * </pre>
+     * so that an assert that throws anything, not only an <code>AssertionError</code>, is counted as failed, and a
+     * <code>return</code> in the logic cannot skip setting <code>passed</code>.
+     *
+     * @param metric the assert method
+     * @return the start time, or {@link #DISABLED} or {@link #NOT_TIMED}
+     */
+    static long begin(Metric metric)
+    {
+        int current = state;
+        if (current == 0)
+        {
+            return DISABLED;
+        }
+        if ((current & LISTENING) != 0)
+        {
+            for (AssertionListener listener : LISTENERS)
+            {
+                listener.assertionStarted(metric.methodName);
+            }
+            return System.nanoTime();
+        }
+        return (current & TIMING) != 0 ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Finish recording a call to an assert whose size is not known
+     *
+     * @param metric the assert method
+     * @param start the value returned by {@link #begin(Metric)}
+     * @param failed <code>true</code> if the assert failed
+     */
+    static void end(Metric metric, long start, boolean failed)
+    {
+        end(metric, start, failed, null);
+    }
+
+    /**
+     * Finish recording a call to an assert
+     *
+     * @param metric the assert method
+     * @param start the value returned by {@link #begin(Metric)}
+     * @param failed <code>true</code> if the assert failed
+     * @param input the expected <code>Collection</code>, <code>Map</code> or array, which is only used to find the
+     * size of the input, or {@link #SCALAR}
+     */
+    static void end(Metric metric, long start, boolean failed, Object input)
+    {
+        if (start == DISABLED)
+        {
+            return;
+        }
+        long nanos = start == NOT_TIMED ? -1 : System.nanoTime() - start;
+        int current = state;
+        // calls may be timed only for the listeners
+        if ((current & COUNTING) != 0)
+        {
+            Counters.record(metric, failed, (current & TIMING) != 0 ? nanos : -1);
+        }
+        if ((current & LISTENING) != 0 && nanos >= 0)
+        {
+            long size = sizeOf(input);
+            for (AssertionListener listener : LISTENERS)
+            {
+                listener.assertionCompleted(metric.methodName, size, nanos, failed);
+            }
+        }
+    }
+
+    /**
+     * @param input the input passed to {@link #end(Metric, long, boolean, Object)}
+     * @return the number of elements in the input, or <code>-1</code> if it is not known
+     */
+    private static long sizeOf(Object input)
+    {
+        if (input == SCALAR)
+        {
+            return 1;
+        }
+        else if (input instanceof Collection)
+        {
+            return ((Collection<?>) input).size();
+        }
+        else if (input instanceof Map)
+        {
+            return ((Map<?, ?>) input).size();
+        }
+        else if (input != null && input.getClass().isArray())
+        {
+            return Array.getLength(input);
+        }
+        return -1;
+    }
+
+    /**
+     * The striped counters, which are created the first time a call is recorded
+     */
+    private static final class Counters
+    {
+        private static final int CALLS = 0;
+        private static final int FAILURES = 1;
+        private static final int NANOS = 2;
+        private static final int HISTOGRAM = 3;
+
+        /**
+         * The counters of one assert method for one stripe, followed by a cache line of padding
+         */
+        private static final int BLOCK = HISTOGRAM + HISTOGRAM_BUCKETS + 8;
+
+        private static final int STRIPES = stripes();
+
+        static final AtomicLongArray VALUES = new AtomicLongArray(Metric.values().length * STRIPES * BLOCK);
+
+        /**
+         * @return the smallest power of two that is at least the number of processors, up to 64
+         */
+        private static int stripes()
+        {
+            int processors = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+            return Integer.highestOneBit(Math.max(processors - 1, 1)) << 1;
+        }
+
+        /**
+         * @param metric the assert method
+         * @param failed <code>true</code> if the assert failed
+         * @param nanos the duration of the call, or a negative number if it was not timed
+         */
+        static void record(Metric metric, boolean failed, long nanos)
+        {
+            int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+            int base = (metric.ordinal() * STRIPES + stripe) * BLOCK;
+            VALUES.incrementAndGet(base + CALLS);
+            if (failed)
+            {
+                VALUES.incrementAndGet(base + FAILURES);
+            }
+            if (nanos >= 0)
+            {
+                VALUES.addAndGet(base + NANOS, nanos);
+                VALUES.incrementAndGet(base + HISTOGRAM + (63 - Long.numberOfLeadingZeros(nanos | 1)));
+            }
+        }
+
+        /**
+         * @param metric the assert method
+         * @return the sum of the stripes of the assert method
+         */
+        static Snapshot snapshot(Metric metric)
+        {
+            long calls = 0;
+            long failures = 0;
+            long nanos = 0;
+            long[] histogram = new long[HISTOGRAM_BUCKETS];
+            for (int stripe = 0; stripe < STRIPES; stripe++)
+            {
+                int base = (metric.ordinal() * STRIPES + stripe) * BLOCK;
+                calls += VALUES.get(base + CALLS);
+                failures += VALUES.get(base + FAILURES);
+                nanos += VALUES.get(base + NANOS);
+                for (int i = 0; i < HISTOGRAM_BUCKETS; i++)
+                {
+                    histogram[i] += VALUES.get(base + HISTOGRAM + i);
+                }
+            }
+            return new Snapshot(metric.methodName, calls, failures, nanos, histogram);
+        }
+    }
+
+    /**
+     * The metrics of one assert method at the time of a snapshot
+     */
+    public static final class Snapshot
+    {
+        private final String methodName;
+        private final long calls;
+        private final long failures;
+        private final long totalNanos;
+        private final long[] histogram;
+
+        Snapshot(String methodName, long calls, long failures, long totalNanos, long[] histogram)
+        {
+            this.methodName = methodName;
+            this.calls = calls;
+            this.failures = failures;
+            this.totalNanos = totalNanos;
+            this.histogram = histogram;
+        }
+
+        /**
+         * @return the name of the assert method
+         */
+        public String getMethodName()
+        {
+            return methodName;
+        }
+
+        /**
+         * @return the number of calls
+         */
+        public long getCalls()
+        {
+            return calls;
+        }
+
+        /**
+         * @return the number of calls that failed
+         */
+        public long getFailures()
+        {
+            return failures;
+        }
+
+        /**
+         * @return the total time of the timed calls, in nanoseconds
+         */
+        public long getTotalNanos()
+        {
+            return totalNanos;
+        }
+
+        /**
+         * @return the number of timed calls in each bucket of {@link AssertionMetrics#HISTOGRAM_BUCKETS}
+         */
+        public long[] getHistogram()
+        {
+            return histogram.clone();
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s: %d calls, %d failures, %d ns", methodName, calls, failures, totalNanos);
+        }
+    }
+
+    /**
+     * The <code>MXBean</code> that exposes the metrics through JMX
+     */
+    private static final class MXBean implements AssertionMetricsMXBean
+    {
+        @Override
+        public boolean isEnabled()
+        {
+            return AssertionMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled)
+        {
+            AssertionMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public boolean isTimingEnabled()
+        {
+            return AssertionMetrics.isTimingEnabled();
+        }
+
+        @Override
+        public void setTimingEnabled(boolean timingEnabled)
+        {
+            AssertionMetrics.setTimingEnabled(timingEnabled);
+        }
+
+        @Override
+        public Map<String, Long> getCalls()
+        {
+            Map<String, Long> values = new LinkedHashMap<>();
+            for (Snapshot snapshot : snapshot().values())
+            {
+                values.put(snapshot.getMethodName(), Long.valueOf(snapshot.getCalls()));
+            }
+            return values;
+        }
+
+        @Override
+        public Map<String, Long> getFailures()
+        {
+            Map<String, Long> values = new LinkedHashMap<>();
+            for (Snapshot snapshot : snapshot().values())
+            {
+                values.put(snapshot.getMethodName(), Long.valueOf(snapshot.getFailures()));
+            }
+            return values;
+        }
+
+        @Override
+        public Map<String, Long> getTotalNanos()
+        {
+            Map<String, Long> values = new LinkedHashMap<>();
+            for (Snapshot snapshot : snapshot().values())
+            {
+                values.put(snapshot.getMethodName(), Long.valueOf(snapshot.getTotalNanos()));
+            }
+            return values;
+        }
+
+        @Override
+        public void reset()
+        {
+            AssertionMetrics.reset();
+        }
+    }
+}
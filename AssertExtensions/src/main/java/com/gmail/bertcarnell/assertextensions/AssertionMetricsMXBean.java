@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link AssertionMetrics}, registered by {@link AssertionMetrics#registerMBean()}
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public interface AssertionMetricsMXBean
+{
+    /**
+     * @return <code>true</code> if calls to the asserts are counted
+     */
+    public boolean isEnabled();
+
+    /**
+     * @param enabled <code>true</code> to count calls to the asserts
+     */
+    public void setEnabled(boolean enabled);
+
+    /**
+     * @return <code>true</code> if calls to the asserts are timed when metrics are enabled
+     */
+    public boolean isTimingEnabled();
+
+    /**
+     * @param timingEnabled <code>true</code> to time calls to the asserts when metrics are enabled
+     */
+    public void setTimingEnabled(boolean timingEnabled);
+
+    /**
+     * @return the number of calls to each assert method
+     */
+    public Map<String, Long> getCalls();
+
+    /**
+     * @return the number of failed calls to each assert method
+     */
+    public Map<String, Long> getFailures();
+
+    /**
+     * @return the total time of the timed calls to each assert method, in nanoseconds
+     */
+    public Map<String, Long> getTotalNanos();
+
+    /**
+     * Set every counter to zero
+     */
+    public void reset();
+}
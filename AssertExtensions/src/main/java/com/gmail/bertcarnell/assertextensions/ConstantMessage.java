@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+/**
+ * A <code>MessageSupplier</code> for a message that is already a <code>String</code>.  Used by the
+ * <code>String</code> message overloads so that they share the <code>MessageSupplier</code> implementations.
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+final class ConstantMessage implements MessageSupplier
+{
+    private final String message;
+
+    private ConstantMessage(String message)
+    {
+        this.message = message;
+    }
+
+    /**
+     * @param message the message, which may be <code>null</code>
+     * @return a supplier of the message, or <code>null</code> if the message is <code>null</code>
+     */
+    static MessageSupplier of(String message)
+    {
+        return message == null ? null : new ConstantMessage(message);
+    }
+
+    @Override
+    public String get()
+    {
+        return message;
+    }
+}
@@ -0,0 +1,526 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+
+/**
+ * Finds the first difference between two nested structures of <code>Lists</code>, <code>Maps</code>,
+ * <code>Sets</code> and arrays, comparing numeric leaves with a log relative error, for
+ * <code>assertDeepEqualsLRE</code>.
+ * <p>
+ * The structures are walked depth first with an explicit stack of frames, one for each container being walked, so
+ * the depth of nesting is limited by the heap and not by the thread stack.  The path to the difference is only built
+ * when one is found, as a JSON pointer with one reference token for each frame on the stack.
+ * </p>
+ * <p>
+ * <code>Double</code> and <code>Float</code> leaves, and any <code>Number</code> compared with one of them, pass when
+ * their log relative error is at least the one desired, with the same rule as the scalar
+ * <code>assertEqualsLRE</code>.  A <code>BigDecimal</code> leaf compared with a <code>BigDecimal</code>,
+ * <code>BigInteger</code> or integral leaf uses the <code>BigDecimal</code> rule, and two <code>BigInteger</code> or
+ * integral leaves must have the same value even if their types differ.  Elements of <code>double[]</code> and
+ * <code>float[]</code> are compared in the same way.  Sets sorted by equal comparators are walked in order, and other
+ * sets must be equal.  Any other leaf is compared with <code>equals</code>.  A structure must not contain itself.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+final class DeepComparison
+{
+    /**
+     * Prevent instantiation of this class.
+     */
+    private DeepComparison() {}
+
+    /**
+     * The first difference found between two structures
+     */
+    static final class Mismatch
+    {
+        /**
+         * The JSON pointer to the difference, which is empty for the root
+         */
+        final String path;
+
+        /**
+         * What is different, such as <code>&lt;LRE: 3.1&gt;</code> or <code>Lists have unequal sizes</code>
+         */
+        final String reason;
+
+        /**
+         * The expected value at the path
+         */
+        final Object expected;
+
+        /**
+         * The actual value at the path
+         */
+        final Object actual;
+
+        Mismatch(String path, String reason, Object expected, Object actual)
+        {
+            this.path = path;
+            this.reason = reason;
+            this.expected = expected;
+            this.actual = actual;
+        }
+    }
+
+    /**
+     * Compare two structures
+     *
+     * @param expected the expected structure
+     * @param actual the actual structure
+     * @param lre log relative error desired for numeric leaves
+     * @return the first difference, or <code>null</code> if the structures are equal
+     */
+    static Mismatch firstMismatch(Object expected, Object actual, int lre)
+    {
+        Deque<Frame> stack = new ArrayDeque<>();
+        NumericAssertExtensions.LREScan scan = new NumericAssertExtensions.LREScan(lre);
+        Mismatch mismatch = compare(expected, actual, lre, scan, stack);
+        while (mismatch == null && !stack.isEmpty())
+        {
+            Frame frame = stack.peek();
+            if (!frame.advance())
+            {
+                stack.pop();
+            }
+            else if (frame.missing)
+            {
+                mismatch = mismatch(stack, null, "actual does not contain the key", frame.expected, null);
+            }
+            else
+            {
+                mismatch = compare(frame.expected, frame.actual, lre, scan, stack);
+            }
+        }
+        return mismatch;
+    }
+
+    /**
+     * Compare two values, pushing a frame if they are containers to walk
+     *
+     * @param expected the expected value
+     * @param actual the actual value
+     * @param lre log relative error desired for numeric leaves
+     * @param scan the check for numeric leaves
+     * @param stack the frames of the containers being walked
+     * @return the difference, or <code>null</code> if there is none so far
+     */
+    private static Mismatch compare(Object expected, Object actual, int lre, NumericAssertExtensions.LREScan scan,
+            Deque<Frame> stack)
+    {
+        if (expected == null || actual == null)
+        {
+            return expected == actual ? null : mismatch(stack, null, "One object is null", expected, actual);
+        }
+        if (expected instanceof Number && actual instanceof Number)
+        {
+            return compareNumbers((Number) expected, (Number) actual, lre, scan, stack);
+        }
+        if (expected instanceof List && actual instanceof List)
+        {
+            List<?> e = (List<?>) expected;
+            List<?> a = (List<?>) actual;
+            if (e.size() != a.size())
+            {
+                return mismatch(stack, null, "Lists have unequal sizes", e.size(), a.size());
+            }
+            stack.push(new IteratorFrame(e.iterator(), a.iterator()));
+            return null;
+        }
+        if (expected instanceof Map && actual instanceof Map)
+        {
+            Map<?, ?> e = (Map<?, ?>) expected;
+            Map<?, ?> a = (Map<?, ?>) actual;
+            if (e.size() != a.size())
+            {
+                return mismatch(stack, null, "Maps have unequal sizes", e.size(), a.size());
+            }
+            stack.push(new MapFrame(e.entrySet().iterator(), a));
+            return null;
+        }
+        if (expected instanceof Set && actual instanceof Set)
+        {
+            Set<?> e = (Set<?>) expected;
+            Set<?> a = (Set<?>) actual;
+            if (e.size() != a.size())
+            {
+                return mismatch(stack, null, "Sets have unequal sizes", e.size(), a.size());
+            }
+            if (sameOrder(e, a))
+            {
+                stack.push(new IteratorFrame(e.iterator(), a.iterator()));
+                return null;
+            }
+            return a.containsAll(e) ? null : mismatch(stack, null, "actual does not contain all of expected", e, a);
+        }
+        if (expected.getClass().isArray() && expected.getClass() == actual.getClass())
+        {
+            return compareArrays(expected, actual, scan, stack);
+        }
+        return expected.equals(actual) ? null : mismatch(stack, null, "Objects are not equal", expected, actual);
+    }
+
+    /**
+     * @param expected the expected number
+     * @param actual the actual number
+     * @param lre log relative error desired
+     * @param scan the check for floating point numbers
+     * @param stack the frames of the containers being walked
+     * @return the difference, or <code>null</code> if the numbers are equal enough
+     */
+    private static Mismatch compareNumbers(Number expected, Number actual, int lre,
+            NumericAssertExtensions.LREScan scan, Deque<Frame> stack)
+    {
+        if (isFloatingPoint(expected) || isFloatingPoint(actual))
+        {
+            double e = expected.doubleValue();
+            double a = actual.doubleValue();
+            return scan.accept(0, e, a) ? mismatch(stack, null,
+                    String.format("<LRE: %f>", NumericAssertExtensions.calculateLRE(e, a)), expected, actual) : null;
+        }
+        if (isExact(expected) && isExact(actual))
+        {
+            if (isIntegral(expected) && isIntegral(actual))
+            {
+                return expected.longValue() == actual.longValue() ? null
+                        : mismatch(stack, null, "Numbers are not equal", expected, actual);
+            }
+            BigDecimal e = toBigDecimal(expected);
+            BigDecimal a = toBigDecimal(actual);
+            if (e.compareTo(a) == 0)
+            {
+                return null;
+            }
+            if (!(expected instanceof BigDecimal) && !(actual instanceof BigDecimal))
+            {
+                return mismatch(stack, null, "Numbers are not equal", expected, actual);
+            }
+            int testlre = NumericAssertExtensions.calculateLRE(e, a);
+            return testlre < lre ? mismatch(stack, null, String.format("<LRE: %d>", testlre), expected, actual) : null;
+        }
+        return expected.equals(actual) ? null : mismatch(stack, null, "Numbers are not equal", expected, actual);
+    }
+
+    /**
+     * Compare two arrays of the same class.  Arrays of objects are walked, and arrays of primitives are compared here.
+     *
+     * @param expected the expected array
+     * @param actual the actual array
+     * @param scan the check for floating point elements
+     * @param stack the frames of the containers being walked
+     * @return the difference, or <code>null</code> if there is none so far
+     */
+    private static Mismatch compareArrays(Object expected, Object actual, NumericAssertExtensions.LREScan scan,
+            Deque<Frame> stack)
+    {
+        if (expected instanceof Object[])
+        {
+            Object[] e = (Object[]) expected;
+            Object[] a = (Object[]) actual;
+            if (e.length != a.length)
+            {
+                return mismatch(stack, null, "Arrays have unequal lengths", e.length, a.length);
+            }
+            stack.push(new IteratorFrame(Arrays.asList(e).iterator(), Arrays.asList(a).iterator()));
+            return null;
+        }
+        if (expected instanceof double[])
+        {
+            double[] e = (double[]) expected;
+            double[] a = (double[]) actual;
+            if (e.length != a.length)
+            {
+                return mismatch(stack, null, "Arrays have unequal lengths", e.length, a.length);
+            }
+            for (int i = 0; i < e.length; i++)
+            {
+                if (scan.accept(i, e[i], a[i]))
+                {
+                    return mismatch(stack, Integer.toString(i),
+                            String.format("<LRE: %f>", NumericAssertExtensions.calculateLRE(e[i], a[i])), e[i], a[i]);
+                }
+            }
+            return null;
+        }
+        if (expected instanceof float[])
+        {
+            float[] e = (float[]) expected;
+            float[] a = (float[]) actual;
+            if (e.length != a.length)
+            {
+                return mismatch(stack, null, "Arrays have unequal lengths", e.length, a.length);
+            }
+            for (int i = 0; i < e.length; i++)
+            {
+                if (scan.accept(i, e[i], a[i]))
+                {
+                    return mismatch(stack, Integer.toString(i),
+                            String.format("<LRE: %f>", NumericAssertExtensions.calculateLRE(e[i], a[i])), e[i], a[i]);
+                }
+            }
+            return null;
+        }
+        // the other primitive arrays are compared exactly
+        if (!Objects.deepEquals(expected, actual))
+        {
+            return mismatch(stack, null, "Arrays are not equal", arrayToString(expected), arrayToString(actual));
+        }
+        return null;
+    }
+
+    /**
+     * @param array an array of primitives
+     * @return the elements of the array, as <code>Arrays.toString</code> prints them
+     */
+    private static String arrayToString(Object array)
+    {
+        String nested = Arrays.deepToString(new Object[] {array});
+        return nested.substring(1, nested.length() - 1);
+    }
+
+    /**
+     * @param n a number
+     * @return <code>true</code> if the number is a <code>Double</code> or a <code>Float</code>
+     */
+    private static boolean isFloatingPoint(Number n)
+    {
+        return n instanceof Double || n instanceof Float;
+    }
+
+    /**
+     * @param n a number
+     * @return <code>true</code> if the number is a <code>Long</code>, <code>Integer</code>, <code>Short</code> or
+     * <code>Byte</code>
+     */
+    private static boolean isIntegral(Number n)
+    {
+        return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+    }
+
+    /**
+     * @param n a number
+     * @return <code>true</code> if the number is a <code>BigDecimal</code>, a <code>BigInteger</code> or integral
+     */
+    private static boolean isExact(Number n)
+    {
+        return n instanceof BigDecimal || n instanceof BigInteger || isIntegral(n);
+    }
+
+    /**
+     * @param n a number for which <code>isExact</code> is <code>true</code>
+     * @return the same value as a <code>BigDecimal</code>
+     */
+    private static BigDecimal toBigDecimal(Number n)
+    {
+        if (n instanceof BigDecimal)
+        {
+            return (BigDecimal) n;
+        }
+        if (n instanceof BigInteger)
+        {
+            return new BigDecimal((BigInteger) n);
+        }
+        return BigDecimal.valueOf(n.longValue());
+    }
+
+    /**
+     * @param expected the expected set
+     * @param actual the actual set
+     * @return <code>true</code> if both sets are sorted by equal comparators, or both by the natural ordering
+     */
+    private static boolean sameOrder(Set<?> expected, Set<?> actual)
+    {
+        if (expected instanceof SortedSet && actual instanceof SortedSet)
+        {
+            Comparator<?> e = ((SortedSet<?>) expected).comparator();
+            Comparator<?> a = ((SortedSet<?>) actual).comparator();
+            return e == null ? a == null : e.equals(a);
+        }
+        return false;
+    }
+
+    /**
+     * Build the difference with the path to it
+     *
+     * @param stack the frames of the containers being walked
+     * @param last the reference token of an element inside the innermost container, or <code>null</code>
+     * @param reason what is different
+     * @param expected the expected value
+     * @param actual the actual value
+     * @return the difference
+     */
+    private static Mismatch mismatch(Deque<Frame> stack, String last, String reason, Object expected, Object actual)
+    {
+        StringBuilder path = new StringBuilder();
+        for (Iterator<Frame> it = stack.descendingIterator(); it.hasNext();)
+        {
+            appendToken(path, it.next().token());
+        }
+        if (last != null)
+        {
+            appendToken(path, last);
+        }
+        return new Mismatch(path.toString(), reason, expected, actual);
+    }
+
+    /**
+     * Append a reference token to a JSON pointer, escaping <code>~</code> as <code>~0</code> and <code>/</code> as
+     * <code>~1</code>
+     *
+     * @param path the JSON pointer
+     * @param token the reference token
+     */
+    static void appendToken(StringBuilder path, String token)
+    {
+        path.append('/');
+        for (int i = 0; i < token.length(); i++)
+        {
+            char c = token.charAt(i);
+            if (c == '~')
+            {
+                path.append("~0");
+            }
+            else if (c == '/')
+            {
+                path.append("~1");
+            }
+            else
+            {
+                path.append(c);
+            }
+        }
+    }
+
+    /**
+     * A container being walked, which holds the pair of children it is comparing now
+     */
+    private abstract static class Frame
+    {
+        Object expected;
+        Object actual;
+
+        /**
+         * <code>true</code> when the expected child has no partner in actual
+         */
+        boolean missing;
+
+        /**
+         * Move to the next pair of children
+         *
+         * @return <code>false</code> if there are no more children
+         */
+        abstract boolean advance();
+
+        /**
+         * @return the reference token of the current children
+         */
+        abstract String token();
+    }
+
+    /**
+     * Walks two sequences of the same size in step
+     */
+    private static final class IteratorFrame extends Frame
+    {
+        private final Iterator<?> expectedIterator;
+        private final Iterator<?> actualIterator;
+        private int index = -1;
+
+        IteratorFrame(Iterator<?> expectedIterator, Iterator<?> actualIterator)
+        {
+            this.expectedIterator = expectedIterator;
+            this.actualIterator = actualIterator;
+        }
+
+        @Override
+        boolean advance()
+        {
+            if (!expectedIterator.hasNext())
+            {
+                return false;
+            }
+            index++;
+            expected = expectedIterator.next();
+            actual = actualIterator.next();
+            return true;
+        }
+
+        @Override
+        String token()
+        {
+            return Integer.toString(index);
+        }
+    }
+
+    /**
+     * Walks the entries of the expected map, looking up each key in the actual map
+     */
+    private static final class MapFrame extends Frame
+    {
+        private final Iterator<? extends Entry<?, ?>> expectedIterator;
+        private final Map<?, ?> actualMap;
+        private Object key;
+
+        MapFrame(Iterator<? extends Entry<?, ?>> expectedIterator, Map<?, ?> actualMap)
+        {
+            this.expectedIterator = expectedIterator;
+            this.actualMap = actualMap;
+        }
+
+        @Override
+        boolean advance()
+        {
+            if (!expectedIterator.hasNext())
+            {
+                return false;
+            }
+            Entry<?, ?> entry = expectedIterator.next();
+            key = entry.getKey();
+            expected = entry.getValue();
+            actual = actualMap.get(key);
+            // containsKey is only needed to tell a missing key from a null value
+            missing = actual == null && !actualMap.containsKey(key);
+            return true;
+        }
+
+        @Override
+        String token()
+        {
+            return String.valueOf(key);
+        }
+    }
+}
@@ -22,10 +22,23 @@
 package com.gmail.bertcarnell.assertextensions;
 
 import static com.gmail.bertcarnell.assertextensions.AssertExtensions.pass;
-import java.beans.Statement;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.validation.constraints.NotNull;
 import static org.junit.Assert.fail;
 
@@ -48,6 +61,22 @@ import static org.junit.Assert.fail;
  */
 public class ExceptionAssertExtensions
 {
+    /**
+     * The number of failed rows listed in the message of <code>assertThrowsForAll</code>
+     */
+    private static final int MAX_REPORTED_INPUTS = 10;
+
+    /**
+     * The outcome of a row that returned normally.  <code>void</code> can never be the class of an exception.
+     */
+    private static final Class<?> NOT_THROWN = void.class;
+
+    /**
+     * The longest time, in minutes, that <code>assertThrowsConcurrently</code> waits for its runs when no timeout is
+     * given
+     */
+    private static final long CONCURRENT_TIMEOUT_MINUTES = 5;
+
     /**
      * Prevent instantiation of this class.
      */
@@ -62,7 +91,7 @@ public class ExceptionAssertExtensions
      */
     public static <T extends Throwable> void assertThrows(@NotNull Class<T> excType, 
             @NotNull final ExceptionRunnable throwerClosure) {
-        assertThrows(excType, throwerClosure, null);
+        assertThrows(excType, throwerClosure, (MessageSupplier) null);
     }
 
     /**
@@ -75,6 +104,20 @@ public class ExceptionAssertExtensions
      */
     public static <T extends Throwable> void assertThrows(Class<T> excType, 
             final ExceptionRunnable throwerClosure, String customFailMessage) {
+        assertThrows(excType, throwerClosure, ConstantMessage.of(customFailMessage));
+    }
+
+    /**
+     * Similar to the other assertThrows methods. Allows the user to supply a custom fail message that is only built if the
+     * assertion doesn't pass.
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param throwerClosure Closure like object that represents the code expected to throw an exception.
+     * @param customFailMessage Supplies the message to throw if the wrong exception is thrown
+     */
+    public static <T extends Throwable> void assertThrows(Class<T> excType, 
+            final ExceptionRunnable throwerClosure, MessageSupplier customFailMessage) {
         ExceptionAssertionsPerformer<T> excAssertsPerformer = new ExceptionAssertionsPerformer<T>() {
             @Override
             public void performThrowingAction() throws Throwable {
@@ -97,7 +140,7 @@ public class ExceptionAssertExtensions
     public static <T extends Throwable> void assertThrowsAndDoAssertsInCatch(Class<T> excType,
             ExceptionAssertionsPerformer<T> excAssertsPerformer)
     {
-        assertThrowsAndDoAssertsInCatch(excType, excAssertsPerformer, null);
+        assertThrowsAndDoAssertsInCatch(excType, excAssertsPerformer, (MessageSupplier) null);
     }
 
     /**
@@ -108,34 +151,303 @@ public class ExceptionAssertExtensions
      * methods to perform after the catch.
      * @param customFailMessage Message to throw if the wrong exception is thrown
      */
-    @SuppressWarnings("unchecked")
     public static <T extends Throwable> void assertThrowsAndDoAssertsInCatch(Class<T> excType,
             ExceptionAssertionsPerformer<T> excAssertsPerformer, String customFailMessage)
     {
+        assertThrowsAndDoAssertsInCatch(excType, excAssertsPerformer, ConstantMessage.of(customFailMessage));
+    }
+
+    /**
+     * Similar to the method with the same name. Allows us to supply an error message that is only built if the assert fails.
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param excAssertsPerformer An object that provides methods to perform that will throw and
+     * methods to perform after the catch.
+     * @param customFailMessage Supplies the message to throw if the wrong exception is thrown
+     */
+    public static <T extends Throwable> void assertThrowsAndDoAssertsInCatch(Class<T> excType,
+            ExceptionAssertionsPerformer<T> excAssertsPerformer, MessageSupplier customFailMessage)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.THROWS);
+        boolean passed = false;
+        try
+        {
+            doAssertThrowsAndDoAssertsInCatch(excType, excAssertsPerformer, customFailMessage);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.THROWS, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertThrowsAndDoAssertsInCatch(Class, ExceptionAssertionsPerformer, MessageSupplier)
+     */
+    private static <T extends Throwable> void doAssertThrowsAndDoAssertsInCatch(Class<T> excType,
+            ExceptionAssertionsPerformer<T> excAssertsPerformer, MessageSupplier customFailMessage)
+    {
+        Throwable th = null;
         try
         {
             // expect this method to throw
             excAssertsPerformer.performThrowingAction();
-            // if it doesn't throw, fail
-            fail(createExpectedExceptionMessage(excType, null, customFailMessage));
         }
-        // catch if the correct method threw an exception or the fail method threw
-        catch (Throwable th)
+        catch (Throwable caught)
         {
-            // if the expected exception is not assignable from the thrown exception, then something went wrong
-            if (!excType.isAssignableFrom(th.getClass()))
+            th = caught;
+        }
+        // this is outside of the try so that a failure is not caught
+        checkThrown(excType, th, excAssertsPerformer, customFailMessage);
+    }
+
+    /**
+     * Checks that the logic wrapped by the given <code>ExceptionRunnable</code> throws an exception of the specified type
+     * before a timeout.  The logic is run on a separate thread, and if it has not finished by the timeout, the assert
+     * fails with the stack trace of that thread.
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param throwerClosure Closure like object that represents the code expected to throw an exception.
+     * @param timeout the longest time to wait for the exception
+     * @param unit the unit of the timeout
+     */
+    public static <T extends Throwable> void assertThrows(@NotNull Class<T> excType,
+            @NotNull final ExceptionRunnable throwerClosure, long timeout, @NotNull TimeUnit unit)
+    {
+        ExceptionAssertionsPerformer<T> excAssertsPerformer = new ExceptionAssertionsPerformer<T>() {
+            @Override
+            public void performThrowingAction() throws Throwable {
+                throwerClosure.run();
+            }
+
+            @Override
+            public void performAssertionsAfterCatch(T th) {}
+        };
+        assertThrowsAndDoAssertsInCatch(excType, excAssertsPerformer, null, timeout, unit, null);
+    }
+
+    /**
+     * Checks if the given exception type is thrown before a timeout and perform the given assertions in that exception
+     * object.  The throwing action is run on a separate thread, and if it has not finished by the timeout, the assert
+     * fails with the stack trace of that thread.  The assertions after the catch are run on the calling thread.
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param excAssertsPerformer An object that provides methods to perform that will throw and
+     * methods to perform after the catch.
+     * @param timeout the longest time to wait for the exception
+     * @param unit the unit of the timeout
+     */
+    public static <T extends Throwable> void assertThrowsAndDoAssertsInCatch(Class<T> excType,
+            ExceptionAssertionsPerformer<T> excAssertsPerformer, long timeout, TimeUnit unit)
+    {
+        assertThrowsAndDoAssertsInCatch(excType, excAssertsPerformer, null, timeout, unit, null);
+    }
+
+    /**
+     * Checks if the given exception type is thrown before a timeout and perform the given assertions in that exception
+     * object.  The throwing action is run on a thread from the factory, and if it has not finished by the timeout, it
+     * is interrupted and the assert fails with its stack trace.  The assertions after the catch are run on the calling
+     * thread.
+     * <p>
+     * On Java 21 and later, <code>Thread.ofVirtual().factory()</code> runs the action on a virtual thread.
+     * </p>
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param excAssertsPerformer An object that provides methods to perform that will throw and
+     * methods to perform after the catch.
+     * @param customFailMessage Supplies the message to throw if the wrong exception is thrown, which may be <code>null</code>
+     * @param timeout the longest time to wait for the exception
+     * @param unit the unit of the timeout
+     * @param threadFactory creates the thread for the throwing action, or <code>null</code> for a daemon thread
+     */
+    public static <T extends Throwable> void assertThrowsAndDoAssertsInCatch(Class<T> excType,
+            final ExceptionAssertionsPerformer<T> excAssertsPerformer, MessageSupplier customFailMessage, long timeout,
+            TimeUnit unit, ThreadFactory threadFactory)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.THROWS);
+        boolean passed = false;
+        try
+        {
+            doAssertThrowsAndDoAssertsInCatch(excType, excAssertsPerformer, customFailMessage, timeout, unit, threadFactory);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.THROWS, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertThrowsAndDoAssertsInCatch(Class, ExceptionAssertionsPerformer, MessageSupplier, long, TimeUnit, ThreadFactory)
+     */
+    private static <T extends Throwable> void doAssertThrowsAndDoAssertsInCatch(Class<T> excType,
+            final ExceptionAssertionsPerformer<T> excAssertsPerformer, MessageSupplier customFailMessage, long timeout,
+            TimeUnit unit, ThreadFactory threadFactory)
+    {
+        // written by the action thread and read after join, which makes it visible
+        final Throwable[] thrown = new Throwable[1];
+        Runnable action = new Runnable()
+        {
+            @Override
+            public void run()
             {
-                fail(createExpectedExceptionMessage(excType, th.getClass(), customFailMessage));
+                try
+                {
+                    excAssertsPerformer.performThrowingAction();
+                }
+                catch (Throwable th)
+                {
+                    thrown[0] = th;
+                }
             }
-            // otherwise, perform assertions
-            try
+        };
+        Thread thread;
+        if (threadFactory == null)
+        {
+            thread = new Thread(action, "assertThrows action");
+            thread.setDaemon(true);
+        }
+        else
+        {
+            thread = threadFactory.newThread(action);
+        }
+        thread.start();
+        try
+        {
+            // join(0) waits forever, so wait at least a millisecond
+            long millis = unit.toMillis(timeout);
+            thread.join(millis > 0 ? millis : 1);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            thread.interrupt();
+            fail(String.format("Interrupted while waiting for %s", excType.getName()));
+        }
+        if (thread.isAlive())
+        {
+            StackTraceElement[] stack = thread.getStackTrace();
+            thread.interrupt();
+            StringBuilder sb = new StringBuilder(String.format("Expected %s, but the action did not finish within %d %s",
+                    excType.getName(), timeout, unit.toString().toLowerCase(Locale.ENGLISH)));
+            if (customFailMessage != null)
             {
-                excAssertsPerformer.performAssertionsAfterCatch((T) th);
+                sb.append("; ").append(customFailMessage.get());
             }
-            catch (Exception e)
+            sb.append(String.format("%n\"%s\" %s", thread.getName(), thread.getState()));
+            for (StackTraceElement element : stack)
             {
-                throw new RuntimeException(e);
+                sb.append(String.format("%n\tat %s", element));
             }
+            fail(sb.toString());
+        }
+        checkThrown(excType, thrown[0], excAssertsPerformer, customFailMessage);
+    }
+
+    /**
+     * Checks that the logic wrapped by the given <code>ExceptionRunnable</code> throws an exception of the specified
+     * type, and returns its type, message, and causes.  The <code>Throwable</code> itself is not kept, so its stack
+     * trace can be collected as soon as the assert returns.  Prefer this to keeping the exception from
+     * <code>performAssertionsAfterCatch</code> when many failing cases run in one test.
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param throwerClosure Closure like object that represents the code expected to throw an exception.
+     * @return the summary of the thrown exception
+     */
+    public static <T extends Throwable> ThrownSummary assertThrowsSummary(@NotNull Class<T> excType,
+            @NotNull ExceptionRunnable throwerClosure)
+    {
+        return assertThrowsSummary(excType, throwerClosure, null);
+    }
+
+    /**
+     * Similar to the method with the same name. Allows us to supply an error message that is only built if the assert fails.
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param throwerClosure Closure like object that represents the code expected to throw an exception.
+     * @param customFailMessage Supplies the message to throw if the wrong exception is thrown, which may be <code>null</code>
+     * @return the summary of the thrown exception
+     */
+    public static <T extends Throwable> ThrownSummary assertThrowsSummary(@NotNull Class<T> excType,
+            @NotNull ExceptionRunnable throwerClosure, MessageSupplier customFailMessage)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.THROWS);
+        boolean passed = false;
+        try
+        {
+            ThrownSummary result = doAssertThrowsSummary(excType, throwerClosure, customFailMessage);
+            passed = true;
+            return result;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.THROWS, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertThrowsSummary(Class, ExceptionRunnable, MessageSupplier)
+     */
+    private static <T extends Throwable> ThrownSummary doAssertThrowsSummary(@NotNull Class<T> excType,
+            @NotNull ExceptionRunnable throwerClosure, MessageSupplier customFailMessage)
+    {
+        Throwable th = null;
+        try
+        {
+            throwerClosure.run();
+        }
+        catch (Throwable caught)
+        {
+            th = caught;
+        }
+        if (th == null)
+        {
+            fail(createExpectedExceptionMessage(excType, null, customFailMessage));
+        }
+        if (!excType.isAssignableFrom(th.getClass()))
+        {
+            fail(createExpectedExceptionMessage(excType, th.getClass(), customFailMessage));
+        }
+        ThrownSummary summary = ThrownSummary.of(th);
+        return summary;
+    }
+
+    /**
+     * private method to check the exception thrown by the action and perform the assertions after the catch
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param th the exception thrown by the action, or <code>null</code> if it did not throw
+     * @param excAssertsPerformer the performer of the assertions after the catch
+     * @param customFailMessage Supplies the message to throw if the wrong exception is thrown, which may be <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> void checkThrown(Class<T> excType, Throwable th,
+            ExceptionAssertionsPerformer<T> excAssertsPerformer, MessageSupplier customFailMessage)
+    {
+        // if it doesn't throw, fail
+        if (th == null)
+        {
+            fail(createExpectedExceptionMessage(excType, null, customFailMessage));
+        }
+        // if the expected exception is not assignable from the thrown exception, then something went wrong
+        if (!excType.isAssignableFrom(th.getClass()))
+        {
+            fail(createExpectedExceptionMessage(excType, th.getClass(), customFailMessage));
+        }
+        // otherwise, perform assertions
+        try
+        {
+            excAssertsPerformer.performAssertionsAfterCatch((T) th);
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
         }
     }
     
@@ -149,7 +461,7 @@ public class ExceptionAssertExtensions
     public static <T extends Throwable> void assertThrows(@NotNull String excMessage,
             @NotNull Class<T> excType, @NotNull final ExceptionRunnable throwerClosure)
     {
-        assertThrows(excMessage, excType, throwerClosure, null);
+        assertThrows(excMessage, excType, throwerClosure, (MessageSupplier) null);
     }
     
     /**
@@ -163,6 +475,21 @@ public class ExceptionAssertExtensions
     public static <T extends Throwable> void assertThrows(@NotNull String excMessage,
             @NotNull Class<T> excType, @NotNull final ExceptionRunnable throwerClosure,
             String customFailMessage)
+    {
+        assertThrows(excMessage, excType, throwerClosure, ConstantMessage.of(customFailMessage));
+    }
+
+    /**
+     * Assert that a specific type of <code>Throwable</code> is thrown with a specific exception, producing a specific message
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param excMessage The expected message attached to the Exception
+     * @param throwerClosure Closure like object that represents the code expected to throw an exception.
+     * @param customFailMessage Supplies a message to be used if the assert fails.  It is not called when the assert passes.
+     */
+    public static <T extends Throwable> void assertThrows(@NotNull String excMessage,
+            @NotNull Class<T> excType, @NotNull final ExceptionRunnable throwerClosure,
+            MessageSupplier customFailMessage)
     {
         ExceptionAssertionsPerformer<T> eap = new ExceptionAssertionsPerformer<T>() 
         {
@@ -189,83 +516,445 @@ public class ExceptionAssertExtensions
      * @param customFailMessage A message to be displayed on failure
      * @param <T> A class that extends Throwable
      */
-    @SuppressWarnings("unchecked")
+    public static <T extends Throwable> void assertThrowsSpecificException(String excMessage,
+            @NotNull Class<T> excType, @NotNull ExceptionAssertionsPerformer<T> excAssertsPerformer,
+            String customFailMessage)
+    {
+        assertThrowsSpecificException(excMessage, excType, excAssertsPerformer, ConstantMessage.of(customFailMessage));
+    }
+
     /**
-     * 
-     * @param <T> a type that extends <code>Throwable</code>
+     * Assert that a method in a <code>Runnable</code> closure should throw when tested with a specific message
+     *
+     * @param excMessage the expected message from the exception
      * @param excType The Class corresponding to the expected exception.
-     * @param excMessage The expected message attached to the Exception
-     * @param excAssertsPerformer a class of type <code>ExceptionAssertionsPerformer</code>
-     * @param customFailMessage A message to be used if the assert fails
+     * @param excAssertsPerformer An object that provides methods to perform that will throw and methods to perform
+     *                            after the catch.
+     * @param customFailMessage Supplies a message to be displayed on failure.  It is not called when the assert passes.
+     * @param <T> A class that extends Throwable
      */
+    @SuppressWarnings("unchecked")
     public static <T extends Throwable> void assertThrowsSpecificException(String excMessage,
             @NotNull Class<T> excType, @NotNull ExceptionAssertionsPerformer<T> excAssertsPerformer,
-            String customFailMessage)
+            MessageSupplier customFailMessage)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.THROWS_SPECIFIC_EXCEPTION);
+        boolean passed = false;
+        try
+        {
+            doAssertThrowsSpecificException(excMessage, excType, excAssertsPerformer, customFailMessage);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.THROWS_SPECIFIC_EXCEPTION, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertThrowsSpecificException(String, Class, ExceptionAssertionsPerformer, MessageSupplier)
+     */
+    private static <T extends Throwable> void doAssertThrowsSpecificException(String excMessage,
+            @NotNull Class<T> excType, @NotNull ExceptionAssertionsPerformer<T> excAssertsPerformer,
+            MessageSupplier customFailMessage)
     {
+        Throwable th = null;
         try 
         {
             excAssertsPerformer.performThrowingAction();
+        } 
+        catch (Throwable caught) 
+        {
+            th = caught;
+        }
+        if (th == null)
+        {
             fail(createExpectedExceptionMessage(excType, null, customFailMessage));
+        }
+        if (!excType.getName().equals(th.getClass().getName()) ||
+                !th.getMessage().equals(excMessage))
+        {
+            String msg = String.format("Expected %s with message %s, but was %s with message %s", 
+                    excType.getName(), excMessage, th.getClass().getName(),
+                    th.getMessage());
+            fail(msg);
+        }
+        try 
+        {
+            excAssertsPerformer.performAssertionsAfterCatch((T) th);
         } 
-        catch (Throwable th) 
+        catch (Exception e) 
         {
-            if (!excType.getName().equals(th.getClass().getName()) ||
-                    !th.getMessage().equals(excMessage))
-            {
-                String msg = String.format("Expected %s with message %s, but was %s with message %s", 
-                        excType.getName(), excMessage, th.getClass().getName(),
-                        th.getMessage());
-                fail(msg);
-            }
-            try 
-            {
-                excAssertsPerformer.performAssertionsAfterCatch((T) th);
-            } 
-            catch (Exception e) 
-            {
-                throw new RuntimeException(e);
-            }
+            throw new RuntimeException(e);
         }
     }
 
     /**
-     * private method to create exception messages
+     * Run an <code>ExceptionRunnable</code> many times on a pool of threads and assert that every run throws an
+     * exception of the specified type
+     * <p>
+     * The runs are held at a gate until all of them have been submitted, so that they start at the same time.  This
+     * is useful for checking guards against races, like <code>ConcurrentModificationException</code>.  The failure
+     * reports how many runs threw nothing and how many threw the wrong type, with the first wrong exception as its cause.
+     * The assert fails if the runs have not all finished within 5 minutes.
+     * </p>
      *
+     * @param <T> a type that extends <code>Throwable</code>
      * @param excType The Class corresponding to the expected exception.
-     * @param actualType The Class corresponding to the actual exception
-     * @param customFailMessage a custom failure message
-     * @return the message
+     * @param throwerClosure Closure like object that represents the code expected to throw an exception.  It is run
+     * on several threads at once.
+     * @param runs the number of times to run the closure
+     * @param threads the number of threads to run the closure on
      */
-    private static String createExpectedExceptionMessage(Class<? extends Throwable> excType, 
-            Class<? extends Throwable> actualType, String customFailMessage)
+    public static <T extends Throwable> void assertThrowsConcurrently(@NotNull Class<T> excType,
+            @NotNull ExceptionRunnable throwerClosure, int runs, int threads)
     {
-        String suffix;
-        if (actualType != null)
-        {
-            suffix = String.format(", but was %s", actualType.getName());
-        }
-        else
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
         {
-            suffix = ", but no exception was thrown";
+            assertThrowsConcurrently(excType, throwerClosure, runs, executor);
         }
-        String result = String.format("Expected %s%s", excType.getName(), suffix);
-        if (customFailMessage != null)
+        finally
         {
-            result += "; " + customFailMessage;
+            executor.shutdownNow();
         }
-        return result;
     }
 
     /**
-     * Unit test to assert that a specific type of exception is thrown
+     * Run an <code>ExceptionRunnable</code> many times with an <code>ExecutorService</code> and assert that every run
+     * throws an exception of the specified type, waiting at most 5 minutes for the runs to finish
+     *
+     * @see #assertThrowsConcurrently(Class, ExceptionRunnable, int, ExecutorService, long, TimeUnit)
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param throwerClosure Closure like object that represents the code expected to throw an exception.  It is run
+     * on several threads at once.
+     * @param runs the number of times to run the closure
+     * @param executor runs the closure
+     */
+    public static <T extends Throwable> void assertThrowsConcurrently(@NotNull Class<T> excType,
+            @NotNull ExceptionRunnable throwerClosure, int runs, @NotNull ExecutorService executor)
+    {
+        assertThrowsConcurrently(excType, throwerClosure, runs, executor, CONCURRENT_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Run an <code>ExceptionRunnable</code> many times with an <code>ExecutorService</code> and assert that every run
+     * throws an exception of the specified type
      * <p>
-     * Examples:
+     * The runs are held at a gate until all of them have been submitted, so that they start at the same time.  The
+     * gate is opened even if the executor rejects a run, so the runs already submitted are not left waiting.  On
+     * Java 21 and later, <code>Executors.newVirtualThreadPerTaskExecutor()</code> runs each one on its own virtual
+     * thread.  The executor is not shut down.  The failure reports how many runs threw nothing and how many threw the
+     * wrong type, with the first wrong exception as its cause.
      * </p>
-     * <ul>
-     * <li>Assert passes because the right exception is thrown:
-     * <ul>
-     * <li><code>assertThrows(NumberFormatException.class, new Double(0), "parseDouble", "a");</code>
-     * </ul>
+     * <p>
+     * The executor must run the closure on other threads.  An executor that runs a task on the calling thread, like
+     * one with a <code>CallerRunsPolicy</code> that is saturated, would wait at the gate forever, so it is rejected
+     * with an <code>IllegalArgumentException</code>.
+     * </p>
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param throwerClosure Closure like object that represents the code expected to throw an exception.  It is run
+     * on several threads at once.
+     * @param runs the number of times to run the closure, which must be at least 1
+     * @param executor runs the closure
+     * @param timeout the longest time to wait for all of the runs to finish
+     * @param unit the unit of the timeout
+     */
+    public static <T extends Throwable> void assertThrowsConcurrently(@NotNull Class<T> excType,
+            @NotNull final ExceptionRunnable throwerClosure, int runs, @NotNull ExecutorService executor, long timeout,
+            @NotNull TimeUnit unit)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.THROWS_CONCURRENTLY);
+        boolean passed = false;
+        try
+        {
+            doAssertThrowsConcurrently(excType, throwerClosure, runs, executor, timeout, unit);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.THROWS_CONCURRENTLY, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertThrowsConcurrently(Class, ExceptionRunnable, int, ExecutorService, long, TimeUnit)
+     */
+    private static <T extends Throwable> void doAssertThrowsConcurrently(@NotNull Class<T> excType,
+            @NotNull final ExceptionRunnable throwerClosure, int runs, @NotNull ExecutorService executor, long timeout,
+            @NotNull TimeUnit unit)
+    {
+        if (runs < 1)
+        {
+            throw new IllegalArgumentException("runs must be at least 1, but was " + runs);
+        }
+        // each run writes only its own element, and the latch publishes them to this thread
+        final Throwable[] outcomes = new Throwable[runs];
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(runs);
+        final Thread caller = Thread.currentThread();
+        final AtomicBoolean ranInline = new AtomicBoolean();
+        try
+        {
+            for (int i = 0; i < runs; i++)
+            {
+                final int run = i;
+                executor.execute(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            // waiting at the gate on the calling thread would never end
+                            if (Thread.currentThread() == caller)
+                            {
+                                ranInline.set(true);
+                                return;
+                            }
+                            gate.await();
+                            throwerClosure.run();
+                        }
+                        catch (Throwable th)
+                        {
+                            outcomes[run] = th;
+                        }
+                        finally
+                        {
+                            done.countDown();
+                        }
+                    }
+                });
+                if (ranInline.get())
+                {
+                    throw new IllegalArgumentException("The executor ran a task on the calling thread");
+                }
+            }
+        }
+        finally
+        {
+            // release the runs already submitted, even if the executor rejected one
+            gate.countDown();
+        }
+        try
+        {
+            if (!done.await(timeout, unit))
+            {
+                fail(String.format("Expected %s from all %d runs, but only %d finished within %d %s",
+                        excType.getName(), runs, runs - done.getCount(), timeout,
+                        unit.toString().toLowerCase(Locale.ENGLISH)));
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            fail(String.format("Interrupted while waiting for %d runs to throw %s", runs, excType.getName()));
+        }
+        int nothingThrown = 0;
+        int wrongType = 0;
+        Throwable firstWrong = null;
+        for (Throwable th : outcomes)
+        {
+            if (th == null)
+            {
+                nothingThrown++;
+            }
+            else if (!excType.isAssignableFrom(th.getClass()))
+            {
+                if (wrongType++ == 0)
+                {
+                    firstWrong = th;
+                }
+            }
+        }
+        if (nothingThrown > 0 || wrongType > 0)
+        {
+            AssertionError error = new AssertionError(String.format(
+                    "Expected %s from all %d runs, but %d threw no exception and %d threw the wrong type%s",
+                    excType.getName(), runs, nothingThrown, wrongType,
+                    firstWrong == null ? "" : ", first " + firstWrong.getClass().getName()));
+            error.initCause(firstWrong);
+            throw error;
+        }
+    }
+
+    /**
+     * Assert that an asynchronous computation completes exceptionally with a specific type of <code>Throwable</code>.
+     * The future is waited for on the calling thread with a bounded timeout, so no pool thread is blocked.  The
+     * <code>ExecutionException</code> and any <code>CompletionException</code> wrapping the failure are unwrapped
+     * before the type is checked.  A <code>CompletionStage</code> can be checked through its
+     * <code>toCompletableFuture()</code>.
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excType The Class corresponding to the expected exception.
+     * @param future the asynchronous computation expected to fail
+     * @param timeout the longest time to wait for the future
+     * @param unit the unit of the timeout
+     */
+    public static <T extends Throwable> void assertThrowsAsync(@NotNull Class<T> excType, @NotNull Future<?> future,
+            long timeout, @NotNull TimeUnit unit)
+    {
+        assertThrowsAsync(null, excType, future, timeout, unit, null);
+    }
+
+    /**
+     * Assert that an asynchronous computation completes exceptionally with a specific type of <code>Throwable</code>
+     * and message.  The type must match exactly, as in {@link #assertThrows(String, Class, ExceptionRunnable)}.
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excMessage The expected message attached to the Exception
+     * @param excType The Class corresponding to the expected exception.
+     * @param future the asynchronous computation expected to fail
+     * @param timeout the longest time to wait for the future
+     * @param unit the unit of the timeout
+     * @see #assertThrowsAsync(Class, Future, long, TimeUnit)
+     */
+    public static <T extends Throwable> void assertThrowsAsync(@NotNull String excMessage, @NotNull Class<T> excType,
+            @NotNull Future<?> future, long timeout, @NotNull TimeUnit unit)
+    {
+        assertThrowsAsync(excMessage, excType, future, timeout, unit, null);
+    }
+
+    /**
+     * Assert that an asynchronous computation completes exceptionally with a specific type of <code>Throwable</code>.
+     * When <code>excMessage</code> is <code>null</code>, any subclass of the expected type passes; otherwise the type
+     * and message must match exactly.
+     *
+     * @param <T> a type that extends <code>Throwable</code>
+     * @param excMessage The expected message attached to the Exception, or <code>null</code> to check only the type
+     * @param excType The Class corresponding to the expected exception.
+     * @param future the asynchronous computation expected to fail
+     * @param timeout the longest time to wait for the future
+     * @param unit the unit of the timeout
+     * @param customFailMessage Supplies a message to be displayed on failure, which may be <code>null</code>
+     * @see #assertThrowsAsync(Class, Future, long, TimeUnit)
+     */
+    public static <T extends Throwable> void assertThrowsAsync(String excMessage, @NotNull Class<T> excType,
+            @NotNull Future<?> future, long timeout, @NotNull TimeUnit unit, MessageSupplier customFailMessage)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.THROWS_ASYNC);
+        boolean passed = false;
+        try
+        {
+            doAssertThrowsAsync(excMessage, excType, future, timeout, unit, customFailMessage);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.THROWS_ASYNC, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertThrowsAsync(String, Class, Future, long, TimeUnit, MessageSupplier)
+     */
+    private static <T extends Throwable> void doAssertThrowsAsync(String excMessage, @NotNull Class<T> excType,
+            @NotNull Future<?> future, long timeout, @NotNull TimeUnit unit, MessageSupplier customFailMessage)
+    {
+        Throwable th = null;
+        try
+        {
+            future.get(timeout, unit);
+        }
+        catch (ExecutionException e)
+        {
+            th = unwrapAsync(e);
+        }
+        catch (CancellationException e)
+        {
+            th = e;
+        }
+        catch (TimeoutException e)
+        {
+            String msg = String.format("Expected %s, but the future did not complete within %d %s",
+                    excType.getName(), timeout, unit.toString().toLowerCase(Locale.ENGLISH));
+            fail(customFailMessage == null ? msg : msg + "; " + customFailMessage.get());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            fail(String.format("Interrupted while waiting for %s", excType.getName()));
+        }
+        if (th == null)
+        {
+            fail(createExpectedExceptionMessage(excType, null, customFailMessage));
+        }
+        if (excMessage == null)
+        {
+            if (!excType.isAssignableFrom(th.getClass()))
+            {
+                fail(createExpectedExceptionMessage(excType, th.getClass(), customFailMessage));
+            }
+        }
+        else if (!excType.getName().equals(th.getClass().getName()) ||
+                !excMessage.equals(th.getMessage()))
+        {
+            String msg = String.format("Expected %s with message %s, but was %s with message %s",
+                    excType.getName(), excMessage, th.getClass().getName(),
+                    th.getMessage());
+            fail(customFailMessage == null ? msg : msg + "; " + customFailMessage.get());
+        }
+    }
+
+    /**
+     * private method to find the failure of an asynchronous computation.  <code>CompletionException</code> is matched
+     * by name since it is not available on Java 7.
+     *
+     * @param e the exception thrown by <code>Future.get</code>
+     * @return the innermost cause that is not an <code>ExecutionException</code> or <code>CompletionException</code>
+     */
+    private static Throwable unwrapAsync(ExecutionException e)
+    {
+        Throwable th = e;
+        while (th.getCause() != null && (th instanceof ExecutionException ||
+                "java.util.concurrent.CompletionException".equals(th.getClass().getName())))
+        {
+            th = th.getCause();
+        }
+        return th;
+    }
+
+    /**
+     * private method to create exception messages
+     *
+     * @param excType The Class corresponding to the expected exception.
+     * @param actualType The Class corresponding to the actual exception
+     * @param customFailMessage supplies a custom failure message, which may be <code>null</code>
+     * @return the message
+     */
+    private static String createExpectedExceptionMessage(Class<? extends Throwable> excType, 
+            Class<? extends Throwable> actualType, MessageSupplier customFailMessage)
+    {
+        String suffix;
+        if (actualType != null)
+        {
+            suffix = String.format(", but was %s", actualType.getName());
+        }
+        else
+        {
+            suffix = ", but no exception was thrown";
+        }
+        String result = String.format("Expected %s%s", excType.getName(), suffix);
+        if (customFailMessage != null)
+        {
+            result += "; " + customFailMessage.get();
+        }
+        return result;
+    }
+
+    /**
+     * Unit test to assert that a specific type of exception is thrown
+     * <p>
+     * Examples:
+     * </p>
+     * <ul>
+     * <li>Assert passes because the right exception is thrown:
+     * <ul>
+     * <li><code>assertThrows(NumberFormatException.class, new Double(0), "parseDouble", "a");</code>
+     * </ul>
      * <li>Assert fails because the wrong exception is thrown:
      * <ul>
      * <li><code>assertThrows(ArithmeticException.class, new Double(0), "parseDouble", "a");</code>
@@ -284,27 +973,41 @@ public class ExceptionAssertExtensions
     public static void assertThrows(@NotNull Class<? extends Throwable> expectedException, @NotNull Object target,
             @NotNull String methodName, Object... arguments)
     {
-        // create a java.beans.statement which works like Method in reflection
-        Statement oStatement = new Statement(target, methodName, arguments);
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.THROWS);
+        boolean passed = false;
         try
         {
-            oStatement.execute(); // throws Exception
+            doAssertThrows(expectedException, target, methodName, arguments);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.THROWS, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertThrows(Class, Object, String, Object...)
+     */
+    private static void doAssertThrows(@NotNull Class<? extends Throwable> expectedException, @NotNull Object target,
+            @NotNull String methodName, Object... arguments)
+    {
+        Throwable e = invokeAndCatch(target, methodName, arguments);
+        if (e == null)
+        {
             // if Exception is not thrown
-            fail(String.format("Method %s did not throw %s as expected", oStatement.getMethodName(), expectedException.toString()));
+            fail(String.format("Method %s did not throw %s as expected", methodName, expectedException.toString()));
         }
-        catch (Exception e)
+        // the class of the Exception should match the expectedException
+        Class<?> temp = e.getClass();
+        if (temp != expectedException)
         {
-            // the class of the Exception should match the expectedException
-            Class<?> temp = e.getClass();
-            if (temp != expectedException)
-            {
-                fail(String.format("Method %s threw %s, but %s was expected", oStatement.getMethodName(), temp.toString(),
-                        expectedException.toString()));
-            }
-            else
-            {
-                pass();
-            }
+            fail(String.format("Method %s threw %s, but %s was expected", methodName, temp.toString(),
+                    expectedException.toString()));
+        }
+        else
+        {
+            pass();
         }
     }
 
@@ -321,32 +1024,313 @@ public class ExceptionAssertExtensions
     public static void assertThrows(@NotNull String message, @NotNull Class<? extends Throwable> expectedException, @NotNull Object target,
             @NotNull String methodName, Object... arguments)
     {
-        // create a java.beans.statement which works like Method in reflection
-        Statement oStatement = new Statement(target, methodName, arguments);
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.THROWS);
+        boolean passed = false;
         try
         {
-            oStatement.execute(); // throws Exception
+            doAssertThrows(message, expectedException, target, methodName, arguments);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.THROWS, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertThrows(String, Class, Object, String, Object...)
+     */
+    private static void doAssertThrows(@NotNull String message, @NotNull Class<? extends Throwable> expectedException, @NotNull Object target,
+            @NotNull String methodName, Object... arguments)
+    {
+        Throwable e = invokeAndCatch(target, methodName, arguments);
+        if (e == null)
+        {
             // if Exception is not thrown
-            fail(String.format("Method %s did not throw %s as expected", oStatement.getMethodName(), expectedException.toString()));
+            fail(String.format("Method %s did not throw %s as expected", methodName, expectedException.toString()));
         }
-        catch (Exception e)
+        // the class of the Exception should match the expectedException
+        Class<?> temp = e.getClass();
+        if (temp != expectedException)
+        {
+            fail(String.format("Method %s threw %s, but %s was expected", methodName, temp.toString(),
+                    expectedException.toString()));
+        }
+        else if (!e.getMessage().equals(message))
+        {
+            fail(String.format("Method %s threw %s, but contained message %s when %s was expected", methodName,
+                    temp.toString(), e.getMessage(), message));
+        }
+        else
         {
-            // the class of the Exception should match the expectedException
-            Class<?> temp = e.getClass();
-            if (temp != expectedException)
+            pass();
+        }
+    }
+
+    /**
+     * Unit test to assert that a method throws a specific type of exception for every row of arguments in a table
+     * <p>
+     * Every row is called, even after a failure, and the failure lists the first 10 rows that returned normally or
+     * threw another type.  The method is resolved once for
+     * each combination of argument classes and cached, so a large table costs little more than calling the method
+     * directly.  A <code>Stream</code> of rows can be passed as <code>stream::iterator</code>.
+     * </p>
+     *
+     * @see #assertThrows(Class, Object, String, Object...)
+     * @param expectedException The class of the expected exception type
+     * @param target the target object that the method will be called from
+     * @param methodName the name of the method that is to be called
+     * @param argumentRows the arguments to be passed to the method, one array for each call
+     */
+    public static void assertThrowsForAll(@NotNull Class<? extends Throwable> expectedException, @NotNull Object target,
+            @NotNull String methodName, @NotNull Iterable<Object[]> argumentRows)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.THROWS_FOR_ALL);
+        boolean passed = false;
+        try
+        {
+            doAssertThrowsForAll(expectedException, target, methodName, argumentRows);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.THROWS_FOR_ALL, start, !passed, argumentRows);
+        }
+    }
+
+    /**
+     * @see #assertThrowsForAll(Class, Object, String, Iterable)
+     */
+    private static void doAssertThrowsForAll(@NotNull Class<? extends Throwable> expectedException, @NotNull Object target,
+            @NotNull String methodName, @NotNull Iterable<Object[]> argumentRows)
+    {
+        StringBuilder failures = new StringBuilder();
+        int failedCount = 0;
+        int index = 0;
+        for (Object[] arguments : argumentRows)
+        {
+            Class<?> outcome = invokeForOutcome(expectedException, target, methodName, arguments);
+            if (outcome != null)
             {
-                fail(String.format("Method %s threw %s, but %s was expected", oStatement.getMethodName(), temp.toString(),
-                        expectedException.toString()));
+                appendFailedInput(failures, failedCount++, index, arguments, outcome);
             }
-            else if (!e.getMessage().equals(message))
+            index++;
+        }
+        if (failedCount > 0)
+        {
+            fail(createForAllMessage(expectedException, methodName, failedCount, index, failures));
+        }
+    }
+
+    /**
+     * Unit test to assert that a method throws a specific type of exception for every row of arguments in a table,
+     * calling the rows in parallel in a shared <code>ForkJoinPool</code>
+     *
+     * @see #assertThrowsForAllParallel(Class, Object, String, Iterable, ForkJoinPool)
+     * @param expectedException The class of the expected exception type
+     * @param target the target object that the method will be called from
+     * @param methodName the name of the method that is to be called
+     * @param argumentRows the arguments to be passed to the method, one array for each call
+     */
+    public static void assertThrowsForAllParallel(@NotNull Class<? extends Throwable> expectedException,
+            @NotNull Object target, @NotNull String methodName, @NotNull Iterable<Object[]> argumentRows)
+    {
+        assertThrowsForAllParallel(expectedException, target, methodName, argumentRows, null);
+    }
+
+    /**
+     * Unit test to assert that a method throws a specific type of exception for every row of arguments in a table,
+     * calling the rows in parallel
+     * <p>
+     * The rows are copied to an array and split across the pool, so the method must be safe to call from several
+     * threads.  The failure lists the same rows, in the same order, as
+     * {@link #assertThrowsForAll(Class, Object, String, Iterable)}.
+     * </p>
+     *
+     * @param expectedException The class of the expected exception type
+     * @param target the target object that the method will be called from
+     * @param methodName the name of the method that is to be called
+     * @param argumentRows the arguments to be passed to the method, one array for each call
+     * @param pool the pool to call the method in, or <code>null</code> for a shared pool
+     */
+    public static void assertThrowsForAllParallel(@NotNull Class<? extends Throwable> expectedException,
+            @NotNull Object target, @NotNull String methodName, @NotNull Iterable<Object[]> argumentRows,
+            ForkJoinPool pool)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.THROWS_FOR_ALL);
+        boolean passed = false;
+        List<Object[]> rows = new ArrayList<>();
+        try
+        {
+            for (Object[] arguments : argumentRows)
+            {
+                rows.add(arguments);
+            }
+            doAssertThrowsForAllParallel(expectedException, target, methodName, rows, pool);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.THROWS_FOR_ALL, start, !passed, rows);
+        }
+    }
+
+    /**
+     * @see #assertThrowsForAllParallel(Class, Object, String, Iterable, ForkJoinPool)
+     */
+    private static void doAssertThrowsForAllParallel(Class<? extends Throwable> expectedException, Object target,
+            String methodName, List<Object[]> rows, ForkJoinPool pool)
+    {
+        Class<?>[] outcomes = new Class<?>[rows.size()];
+        (pool == null ? ParallelComparison.sharedPool() : pool).invoke(
+                new ForAllTask(expectedException, target, methodName, rows, outcomes, 0, rows.size()));
+        StringBuilder failures = new StringBuilder();
+        int failedCount = 0;
+        for (int i = 0; i < outcomes.length; i++)
+        {
+            if (outcomes[i] != null)
             {
-                fail(String.format("Method %s threw %s, but contained message %s when %s was expected", oStatement.getMethodName(),
-                        temp.toString(), e.getMessage(), message));
+                appendFailedInput(failures, failedCount++, i, rows.get(i), outcomes[i]);
             }
-            else
+        }
+        if (failedCount > 0)
+        {
+            fail(createForAllMessage(expectedException, methodName, failedCount, outcomes.length, failures));
+        }
+    }
+
+    /**
+     * Splits a range of rows across a <code>ForkJoinPool</code> and records the outcome of each row in the leaves
+     */
+    private static final class ForAllTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The number of rows called by one task
+         */
+        private static final int LEAF_SIZE = 64;
+
+        private final Class<? extends Throwable> expectedException;
+        private final Object target;
+        private final String methodName;
+        private final List<Object[]> rows;
+        private final Class<?>[] outcomes;
+        private final int from;
+        private final int to;
+
+        ForAllTask(Class<? extends Throwable> expectedException, Object target, String methodName, List<Object[]> rows,
+                Class<?>[] outcomes, int from, int to)
+        {
+            this.expectedException = expectedException;
+            this.target = target;
+            this.methodName = methodName;
+            this.rows = rows;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= LEAF_SIZE)
             {
-                pass();
+                for (int i = from; i < to; i++)
+                {
+                    outcomes[i] = invokeForOutcome(expectedException, target, methodName, rows.get(i));
+                }
+                return;
             }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ForAllTask(expectedException, target, methodName, rows, outcomes, from, middle),
+                    new ForAllTask(expectedException, target, methodName, rows, outcomes, middle, to));
+        }
+    }
+
+    /**
+     * private method to call a method by name and classify what it throws
+     *
+     * @param expectedException The class of the expected exception type
+     * @param target the target object that the method will be called from
+     * @param methodName the name of the method that is to be called
+     * @param arguments the arguments to be passed to the method
+     * @return <code>null</code> if the expected exception was thrown, {@link #NOT_THROWN} if the method returned
+     * normally, or the class of the exception that was thrown instead
+     */
+    private static Class<?> invokeForOutcome(Class<? extends Throwable> expectedException, Object target,
+            String methodName, Object[] arguments)
+    {
+        Throwable e = invokeAndCatch(target, methodName, arguments);
+        if (e == null)
+        {
+            return NOT_THROWN;
+        }
+        return e.getClass() == expectedException ? null : e.getClass();
+    }
+
+    /**
+     * private method to list a row that failed in the message
+     *
+     * @param sb the list of failed rows
+     * @param failedIndex the number of rows that failed before this one
+     * @param index the index of the row
+     * @param arguments the arguments in the row
+     * @param outcome the outcome from {@link #invokeForOutcome(Class, Object, String, Object[])}
+     */
+    private static void appendFailedInput(StringBuilder sb, int failedIndex, int index, Object[] arguments,
+            Class<?> outcome)
+    {
+        if (failedIndex >= MAX_REPORTED_INPUTS)
+        {
+            return;
+        }
+        if (failedIndex > 0)
+        {
+            sb.append(", ");
+        }
+        sb.append(String.format("[%d] %s ", index, Arrays.deepToString(arguments)));
+        sb.append(outcome == NOT_THROWN ? "returned normally" : "threw " + outcome.toString());
+    }
+
+    /**
+     * private method to create the message for a table of rows that failed
+     *
+     * @param expectedException The class of the expected exception type
+     * @param methodName the name of the method that was called
+     * @param failedCount the number of rows that failed
+     * @param count the number of rows
+     * @param failures the list of failed rows
+     * @return the message
+     */
+    private static String createForAllMessage(Class<? extends Throwable> expectedException, String methodName,
+            int failedCount, int count, StringBuilder failures)
+    {
+        String more = failedCount > MAX_REPORTED_INPUTS
+                ? String.format(" and %d more", failedCount - MAX_REPORTED_INPUTS) : "";
+        return String.format("Method %s did not throw %s for %d of %d inputs: %s%s", methodName,
+                expectedException.toString(), failedCount, count, failures, more);
+    }
+
+    /**
+     * private method to call a method by name and catch what it throws.  The method is resolved once for each target class,
+     * method name and argument classes, and cached as a <code>MethodHandle</code>.
+     *
+     * @param target the target object that the method will be called from
+     * @param methodName the name of the method that is to be called
+     * @param arguments the arguments to be passed to the method
+     * @return the <code>Throwable</code> thrown by the method, or <code>null</code> if the method returned normally
+     */
+    private static Throwable invokeAndCatch(Object target, String methodName, Object... arguments)
+    {
+        try
+        {
+            ReflectiveInvoker.invoke(target, methodName, arguments);
+            return null;
+        }
+        catch (Throwable th)
+        {
+            return th;
         }
     }
 
@@ -354,7 +1338,8 @@ public class ExceptionAssertExtensions
      * assertThrows for Constructors using reflection
      * <p>
      * <b>Warning:</b> This method cannot tell the difference between constructors when the only difference is a primitive type.
-     * For example, it cannot tell the difference between A(double[], Object, double) and A(double[], Object, int)
+     * For example, it cannot tell the difference between A(double[], Object, double) and A(double[], Object, int).  Use
+     * {@link #assertConstuctorThrows(Class, Class, Class[], Object...)} to name the parameter types.
      * </p>
      *
      * @param expectedException The class of the expected exception type
@@ -364,27 +1349,120 @@ public class ExceptionAssertExtensions
     public static void assertConstuctorThrows(@NotNull Class<? extends Throwable> expectedException, @NotNull Constructor<?> constr,
             Object... arguments)
     {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.CONSTRUCTOR_THROWS);
+        boolean passed = false;
         try
         {
-            constr.newInstance(arguments);
-            fail(String.format("Constructor %s did not throw %s as expected", constr.getName(), expectedException.toString()));
+            doAssertConstuctorThrows(expectedException, constr, arguments);
+            passed = true;
         }
-        catch (InstantiationException | InvocationTargetException e)
+        finally
         {
-            if (e.getCause().getClass() != expectedException)
-            {
-                fail(String.format("Constructor %s threw %s, but %s was expected", constr.getName(), e.getCause().toString(),
-                        expectedException.toString()));
-            }
-            else
-            {
-                pass();
-            }
+            AssertionMetrics.end(AssertionMetrics.Metric.CONSTRUCTOR_THROWS, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertConstuctorThrows(Class, Constructor, Object...)
+     */
+    private static void doAssertConstuctorThrows(@NotNull Class<? extends Throwable> expectedException, @NotNull Constructor<?> constr,
+            Object... arguments)
+    {
+        assertConstructorInvokerThrows(expectedException, constr.getName(), ReflectiveInvoker.findConstructor(constr),
+                arguments);
+    }
+
+    /**
+     * assertThrows for Constructors using reflection, where the constructor is identified by its exact parameter types
+     * <p>
+     * The constructor is resolved once for each class and set of parameter types, and cached as a <code>MethodHandle</code>,
+     * so there is no reflective lookup on later calls.  Because the parameter types are exact, constructors that differ only
+     * in a primitive type, like A(double[], Object, double) and A(double[], Object, int), are told apart.  Wrapper arguments
+     * are unboxed and widened to primitive parameters the same way as <code>Constructor.newInstance</code>.
+     * </p>
+     * <p>
+     * Example: <code>assertConstuctorThrows(NumberFormatException.class, Double.class, new Class&lt;?&gt;[] {String.class}, "a");</code>
+     * </p>
+     *
+     * @param expectedException The class of the expected exception type
+     * @param type the class to construct
+     * @param parameterTypes the exact parameter types of the target constructor
+     * @param arguments the arguments to be passed to the constructor
+     */
+    public static void assertConstuctorThrows(@NotNull Class<? extends Throwable> expectedException, @NotNull Class<?> type,
+            @NotNull Class<?>[] parameterTypes, Object... arguments)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.CONSTRUCTOR_THROWS);
+        boolean passed = false;
+        try
+        {
+            doAssertConstuctorThrows(expectedException, type, parameterTypes, arguments);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.CONSTRUCTOR_THROWS, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertConstuctorThrows(Class, Class, Class[], Object...)
+     */
+    private static void doAssertConstuctorThrows(@NotNull Class<? extends Throwable> expectedException, @NotNull Class<?> type,
+            @NotNull Class<?>[] parameterTypes, Object... arguments)
+    {
+        ReflectiveInvoker.ConstructorInvoker invoker = null;
+        try
+        {
+            invoker = ReflectiveInvoker.findConstructor(type, parameterTypes);
+        }
+        catch (NoSuchMethodException e)
+        {
+            fail(String.format("Error in invoking constructor %s with arguments %s: %s", type.getName(), Arrays.toString(arguments),
+                    e.toString()));
+        }
+        assertConstructorInvokerThrows(expectedException, type.getName(), invoker, arguments);
+    }
+
+    /**
+     * private method to invoke a cached constructor and check what it throws
+     *
+     * @param expectedException The class of the expected exception type
+     * @param name the name of the constructor
+     * @param invoker the cached constructor
+     * @param arguments the arguments to be passed to the constructor
+     */
+    private static void assertConstructorInvokerThrows(Class<? extends Throwable> expectedException, String name,
+            ReflectiveInvoker.ConstructorInvoker invoker, Object[] arguments)
+    {
+        Object[] args = arguments == null ? new Object[0] : arguments;
+        String argumentError = invoker.checkArguments(args);
+        if (argumentError != null)
+        {
+            fail(String.format("Error in invoking constructor %s with arguments %s: %s", name, Arrays.toString(args),
+                    argumentError));
         }
-        catch (IllegalAccessException | IllegalArgumentException e2)
+        Throwable e = null;
+        try
+        {
+            invoker.invoke(null, args);
+        }
+        catch (Throwable th)
+        {
+            e = th;
+        }
+        if (e == null)
+        {
+            fail(String.format("Constructor %s did not throw %s as expected", name, expectedException.toString()));
+        }
+        if (e.getClass() != expectedException)
+        {
+            fail(String.format("Constructor %s threw %s, but %s was expected", name, e.toString(),
+                    expectedException.toString()));
+        }
+        else
         {
-            fail(String.format("Error in invoking constructor %s with arguments %s: %s", constr.getName(), Arrays.toString(arguments),
-                    e2.getMessage()));
+            pass();
         }
     }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+/**
+ * Finds the position of a <code>long</code> key in an array of keys without boxing, for
+ * <code>assertMapEqualsLRE</code>.
+ * <p>
+ * The table is open addressed with linear probing, and each slot holds the position of its key in the array plus one,
+ * so that zero marks an empty slot and the keys are not copied.  A slot is marked as matched by negating it, which
+ * is how a key that is looked up twice is found.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+final class LongKeyIndex
+{
+    /**
+     * Returned by {@link #add(int)} when the key is already in the table
+     */
+    static final int DUPLICATE = -1;
+
+    /**
+     * Returned by {@link #match(long)} when the key is not in the table
+     */
+    static final int MISSING = -1;
+
+    /**
+     * Returned by {@link #match(long)} when the key has already been matched
+     */
+    static final int MATCHED = -2;
+
+    /**
+     * The golden ratio in 64 bits, which spreads keys that differ only in their high or low bits across the table
+     */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final long[] keys;
+    private final int[] slots;
+    private final int shift;
+    private final int mask;
+
+    /**
+     * @param keys the keys to index, which are added with {@link #add(int)}
+     */
+    LongKeyIndex(long[] keys)
+    {
+        this.keys = keys;
+        // keep the table at most three quarters full
+        long minimum = Math.max(2L, (keys.length * 4L + 2L) / 3L);
+        int bits = 64 - Long.numberOfLeadingZeros(minimum - 1L);
+        if (bits > 30)
+        {
+            throw new IllegalArgumentException("Too many keys to index: " + keys.length);
+        }
+        this.slots = new int[1 << bits];
+        this.shift = 64 - bits;
+        this.mask = slots.length - 1;
+    }
+
+    /**
+     * @param key the key
+     * @return the first slot to probe for the key
+     */
+    private int hash(long key)
+    {
+        return (int) ((key * HASH_MULTIPLIER) >>> shift);
+    }
+
+    /**
+     * Add the key at a position to the table
+     *
+     * @param position the position of the key in the array
+     * @return the position, or {@link #DUPLICATE} if the key was already added
+     */
+    int add(int position)
+    {
+        long key = keys[position];
+        for (int i = hash(key); ; i = (i + 1) & mask)
+        {
+            int slot = slots[i];
+            if (slot == 0)
+            {
+                slots[i] = position + 1;
+                return position;
+            }
+            if (keys[slot - 1] == key)
+            {
+                return DUPLICATE;
+            }
+        }
+    }
+
+    /**
+     * Find the position of a key and mark it as matched
+     *
+     * @param key the key
+     * @return the position of the key in the array, {@link #MISSING}, or {@link #MATCHED} if it was already matched
+     */
+    int match(long key)
+    {
+        for (int i = hash(key); ; i = (i + 1) & mask)
+        {
+            int slot = slots[i];
+            if (slot == 0)
+            {
+                return MISSING;
+            }
+            int position = (slot < 0 ? -slot : slot) - 1;
+            if (keys[position] == key)
+            {
+                if (slot < 0)
+                {
+                    return MATCHED;
+                }
+                slots[i] = -slot;
+                return position;
+            }
+        }
+    }
+}
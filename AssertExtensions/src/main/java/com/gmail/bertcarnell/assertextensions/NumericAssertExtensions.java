@@ -22,9 +22,19 @@
 package com.gmail.bertcarnell.assertextensions;
 
 import static com.gmail.bertcarnell.assertextensions.AssertExtensions.pass;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import javax.validation.constraints.NotNull;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 /**
  * Extensions to the JUnit library for numeric argument related assertions
@@ -32,6 +42,21 @@ import static org.junit.Assert.assertSame;
  */
 public class NumericAssertExtensions
 {
+    /**
+     * The exponent bits of a <code>double</code>, which are all set for <code>NaN</code> and the infinities
+     */
+    private static final long DOUBLE_EXPONENT_BITS = 0x7ff0000000000000L;
+
+    /**
+     * The exponent bits of a <code>float</code>, which are all set for <code>NaN</code> and the infinities
+     */
+    private static final int FLOAT_EXPONENT_BITS = 0x7f800000;
+
+    /**
+     * The number of bytes of a file that are memory mapped at a time
+     */
+    static final long MAPPED_CHUNK_BYTES = 1L << 26;
+
     /**
      * Assert that expected and actual are equal to within a certain log relative error. Log relative error measures the number of
      * significant digits of agreement.
@@ -42,7 +67,7 @@ public class NumericAssertExtensions
      */
     public static void assertEqualsLRE(double expected, double actual, int lre)
     {
-        assertEqualsLRE("", expected, actual, lre);
+        assertEqualsLRE((MessageSupplier) null, expected, actual, lre);
     }
 
     /**
@@ -56,32 +81,365 @@ public class NumericAssertExtensions
      */
     public static void assertEqualsLRE(@NotNull String message, double expected, double actual, int lre)
     {
-        double testlre;
+        assertEqualsLRE(ConstantMessage.of(message), expected, actual, lre);
+    }
+
+    /**
+     * Assert that expected and actual are equal to within a certain log relative error. Log relative error measures the number of
+     * significant digits of agreement.
+     *
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected expected value
+     * @param actual actual value
+     * @param lre log relative error desired
+     */
+    public static void assertEqualsLRE(MessageSupplier message, double expected, double actual, int lre)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.EQUALS_LRE);
+        boolean passed = false;
+        try
+        {
+            doAssertEqualsLRE(message, expected, actual, lre);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.EQUALS_LRE, start, !passed, AssertionMetrics.SCALAR);
+        }
+    }
+
+    /**
+     * @see #assertEqualsLRE(MessageSupplier, double, double, int)
+     */
+    private static void doAssertEqualsLRE(MessageSupplier message, double expected, double actual, int lre)
+    {
         if (expected == actual)
         {
             return;
         }
-        if (expected == 0.0)
+        double testlre = calculateLRE(expected, actual);
+        if ((int) Math.floor(testlre) < lre)
+        {
+            // use assertSame so that it fails and prints like the other assert errors
+            assertSame(createLREMessage(message, String.format("<LRE: %f>", testlre)), expected, actual);
+        }
+    }
+
+    /**
+     * Assert that each element of expected and actual are equal to within a certain log relative error.  Log relative error
+     * measures the number of significant digits of agreement.
+     * <p>
+     * The arrays are checked in one pass.  Logarithms are only calculated for elements whose relative error is near or above
+     * <code>10^-lre</code>, and the failure reports the element with the lowest log relative error.
+     * </p>
+     *
+     * @param expected expected values
+     * @param actual actual values
+     * @param lre log relative error desired
+     */
+    public static void assertEqualsLRE(double[] expected, double[] actual, int lre)
+    {
+        assertEqualsLRE((MessageSupplier) null, expected, actual, lre);
+    }
+
+    /**
+     * Assert that each element of expected and actual are equal to within a certain log relative error.  Log relative error
+     * measures the number of significant digits of agreement.
+     * <p>
+     * The arrays are checked in one pass.  Logarithms are only calculated for elements whose relative error is near or above
+     * <code>10^-lre</code>, and the failure reports the element with the lowest log relative error.
+     * </p>
+     *
+     * @param message message if the test fails
+     * @param expected expected values
+     * @param actual actual values
+     * @param lre log relative error desired
+     */
+    public static void assertEqualsLRE(@NotNull String message, double[] expected, double[] actual, int lre)
+    {
+        assertEqualsLRE(ConstantMessage.of(message), expected, actual, lre);
+    }
+
+    /**
+     * Assert that each element of expected and actual are equal to within a certain log relative error.  Log relative error
+     * measures the number of significant digits of agreement.
+     * <p>
+     * The arrays are checked in one pass.  Logarithms are only calculated for elements whose relative error is near or above
+     * <code>10^-lre</code>, and the failure reports the element with the lowest log relative error.
+     * </p>
+     *
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected expected values
+     * @param actual actual values
+     * @param lre log relative error desired
+     */
+    public static void assertEqualsLRE(MessageSupplier message, double[] expected, double[] actual, int lre)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.EQUALS_LRE);
+        boolean passed = false;
+        try
+        {
+            doAssertEqualsLRE(message, expected, actual, lre);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.EQUALS_LRE, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertEqualsLRE(MessageSupplier, double[], double[], int)
+     */
+    private static void doAssertEqualsLRE(MessageSupplier message, double[] expected, double[] actual, int lre)
+    {
+        if (expected == null && actual == null)
+        {
+            pass();
+            return;
+        }
+        else if (expected == null || actual == null)
+        {
+            // use the same rules as assertSame
+            assertSame(createLREMessage(message, ""), expected, actual);
+            return;
+        }
+        if (expected.length != actual.length)
+        {
+            assertEquals(createLREMessage(message, "Arrays have unequal lengths"), expected.length, actual.length);
+        }
+        LREScan scan = new LREScan(lre);
+        for (int i = 0; i < expected.length; i++)
+        {
+            scan.accept(i, expected[i], actual[i]);
+        }
+        scan.assertNoFailures(message);
+    }
+
+    /**
+     * Assert that two nested structures of <code>Lists</code>, <code>Maps</code>, <code>Sets</code> and arrays are
+     * equal, with numeric leaves equal to within a certain log relative error.  Log relative error measures the number
+     * of significant digits of agreement.
+     * <p>
+     * The structures are walked with an explicit stack instead of recursion, so deep nesting cannot overflow the
+     * thread stack.  <code>Double</code> and <code>Float</code> leaves, and the elements of <code>double[]</code> and
+     * <code>float[]</code>, use the same rule as {@link #assertEqualsLRE(double, double, int)}.  <code>BigDecimal</code>
+     * leaves, compared with each other or with <code>BigInteger</code> and integral leaves, use the rule of
+     * {@link #assertEqualsLRE(BigDecimal, BigDecimal, int)}, and <code>BigInteger</code> and integral leaves of any
+     * type must have the same value.  Sets sorted by equal comparators are walked in order, and other sets and leaves are
+     * compared with <code>equals</code>.  The failure reports the JSON pointer to the first difference, such as
+     * <code>/0/weights/3</code>, where <code>~</code> and <code>/</code> in a map key are escaped as <code>~0</code>
+     * and <code>~1</code>.  A structure must not contain itself.
+     * </p>
+     *
+     * @param expected the expected structure
+     * @param actual the actual structure
+     * @param lre log relative error desired for numeric leaves
+     */
+    public static void assertDeepEqualsLRE(Object expected, Object actual, int lre)
+    {
+        assertDeepEqualsLRE((MessageSupplier) null, expected, actual, lre);
+    }
+
+    /**
+     * Assert that two nested structures are equal, with numeric leaves equal to within a certain log relative error.
+     *
+     * @see #assertDeepEqualsLRE(Object, Object, int)
+     * @param message message if the test fails
+     * @param expected the expected structure
+     * @param actual the actual structure
+     * @param lre log relative error desired for numeric leaves
+     */
+    public static void assertDeepEqualsLRE(@NotNull String message, Object expected, Object actual, int lre)
+    {
+        assertDeepEqualsLRE(ConstantMessage.of(message), expected, actual, lre);
+    }
+
+    /**
+     * Assert that two nested structures are equal, with numeric leaves equal to within a certain log relative error.
+     *
+     * @see #assertDeepEqualsLRE(Object, Object, int)
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected the expected structure
+     * @param actual the actual structure
+     * @param lre log relative error desired for numeric leaves
+     */
+    public static void assertDeepEqualsLRE(MessageSupplier message, Object expected, Object actual, int lre)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.DEEP_EQUALS_LRE);
+        boolean passed = false;
+        try
+        {
+            doAssertDeepEqualsLRE(message, expected, actual, lre);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.DEEP_EQUALS_LRE, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertDeepEqualsLRE(MessageSupplier, Object, Object, int)
+     */
+    private static void doAssertDeepEqualsLRE(MessageSupplier message, Object expected, Object actual, int lre)
+    {
+        DeepComparison.Mismatch mismatch = DeepComparison.firstMismatch(expected, actual, lre);
+        if (mismatch != null)
+        {
+            fail(createLREMessage(message, String.format("%s at \"%s\" expected:<%s> but was:<%s>", mismatch.reason,
+                    mismatch.path, mismatch.expected, mismatch.actual)));
+        }
+    }
+
+    /**
+     * Assert that two maps from <code>long</code> keys to <code>double</code> values, each held as parallel arrays of
+     * keys and values, have exactly the same keys and values that are equal to within a certain log relative error.
+     * Log relative error measures the number of significant digits of agreement.
+     * <p>
+     * The keys may be in any order, but each map may hold a key only once.  No key or value is boxed.  When the keys
+     * are in the same order in both maps, the values are compared in one pass.  Otherwise the keys of actual are
+     * indexed in an open addressed table of <code>int</code> positions.  The failure reports the first key of expected
+     * that is missing from actual, or the key whose value has the lowest log relative error.
+     * </p>
+     *
+     * @param expectedKeys the keys of the expected map
+     * @param expectedValues the values of the expected map, in the order of its keys
+     * @param actualKeys the keys of the actual map
+     * @param actualValues the values of the actual map, in the order of its keys
+     * @param lre log relative error desired
+     */
+    public static void assertMapEqualsLRE(long[] expectedKeys, double[] expectedValues, long[] actualKeys,
+            double[] actualValues, int lre)
+    {
+        assertMapEqualsLRE((MessageSupplier) null, expectedKeys, expectedValues, actualKeys, actualValues, lre);
+    }
+
+    /**
+     * Assert that two maps from <code>long</code> keys to <code>double</code> values have exactly the same keys and
+     * values that are equal to within a certain log relative error.
+     *
+     * @see #assertMapEqualsLRE(long[], double[], long[], double[], int)
+     * @param message message if the test fails
+     * @param expectedKeys the keys of the expected map
+     * @param expectedValues the values of the expected map, in the order of its keys
+     * @param actualKeys the keys of the actual map
+     * @param actualValues the values of the actual map, in the order of its keys
+     * @param lre log relative error desired
+     */
+    public static void assertMapEqualsLRE(@NotNull String message, long[] expectedKeys, double[] expectedValues,
+            long[] actualKeys, double[] actualValues, int lre)
+    {
+        assertMapEqualsLRE(ConstantMessage.of(message), expectedKeys, expectedValues, actualKeys, actualValues, lre);
+    }
+
+    /**
+     * Assert that two maps from <code>long</code> keys to <code>double</code> values have exactly the same keys and
+     * values that are equal to within a certain log relative error.
+     *
+     * @see #assertMapEqualsLRE(long[], double[], long[], double[], int)
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expectedKeys the keys of the expected map
+     * @param expectedValues the values of the expected map, in the order of its keys
+     * @param actualKeys the keys of the actual map
+     * @param actualValues the values of the actual map, in the order of its keys
+     * @param lre log relative error desired
+     */
+    public static void assertMapEqualsLRE(MessageSupplier message, @NotNull long[] expectedKeys,
+            @NotNull double[] expectedValues, @NotNull long[] actualKeys, @NotNull double[] actualValues, int lre)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.MAP_EQUALS_LRE);
+        boolean passed = false;
+        try
+        {
+            doAssertMapEqualsLRE(message, expectedKeys, expectedValues, actualKeys, actualValues, lre);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.MAP_EQUALS_LRE, start, !passed, expectedKeys);
+        }
+    }
+
+    /**
+     * @see #assertMapEqualsLRE(MessageSupplier, long[], double[], long[], double[], int)
+     */
+    private static void doAssertMapEqualsLRE(MessageSupplier message, @NotNull long[] expectedKeys,
+            @NotNull double[] expectedValues, @NotNull long[] actualKeys, @NotNull double[] actualValues, int lre)
+    {
+        assertEquals(createLREMessage(message, "Expected keys and values have unequal lengths"),
+                expectedKeys.length, expectedValues.length);
+        assertEquals(createLREMessage(message, "Actual keys and values have unequal lengths"),
+                actualKeys.length, actualValues.length);
+        assertEquals(createLREMessage(message, "Maps have unequal sizes"), expectedKeys.length, actualKeys.length);
+        LREScan scan = new LREScan(lre, "key");
+        if (Arrays.equals(expectedKeys, actualKeys))
         {
-            testlre = -1.0 * Math.log10(Math.abs(actual));
+            // keys that are unique in expected are also unique in actual, and sorted keys need no index to show it
+            if (!isStrictlyIncreasing(expectedKeys))
+            {
+                indexUniqueKeys(message, "expected", expectedKeys);
+            }
+            for (int i = 0; i < expectedKeys.length; i++)
+            {
+                scan.accept(expectedKeys[i], expectedValues[i], actualValues[i]);
+            }
         }
         else
         {
-            testlre = -1.0 * Math.log10(Math.abs(actual - expected)) + Math.log10(Math.abs(expected));
+            LongKeyIndex index = indexUniqueKeys(message, "actual", actualKeys);
+            for (int i = 0; i < expectedKeys.length; i++)
+            {
+                int position = index.match(expectedKeys[i]);
+                if (position == LongKeyIndex.MISSING)
+                {
+                    fail(createLREMessage(message, String.format("actual does not contain key %d", expectedKeys[i])));
+                }
+                else if (position == LongKeyIndex.MATCHED)
+                {
+                    fail(createLREMessage(message, String.format("expected contains key %d more than once", expectedKeys[i])));
+                }
+                scan.accept(expectedKeys[i], expectedValues[i], actualValues[position]);
+            }
         }
-        if ((int) Math.floor(testlre) < lre)
+        scan.assertNoFailures(message);
+    }
+
+    /**
+     * private method to index the keys of a map, checking that they are unique
+     *
+     * @param message supplies the message if the test fails, which may be <code>null</code>
+     * @param name the name of the map in the failure message
+     * @param keys the keys of the map
+     * @return the index of the keys
+     */
+    private static LongKeyIndex indexUniqueKeys(MessageSupplier message, String name, long[] keys)
+    {
+        LongKeyIndex index = new LongKeyIndex(keys);
+        for (int i = 0; i < keys.length; i++)
         {
-            if (!message.isEmpty())
+            if (index.add(i) == LongKeyIndex.DUPLICATE)
             {
-                // use assertSame so that it fails and prints like the other assert errors
-                assertSame(String.format("%s <LRE: %f>", message, testlre), expected, actual);
+                fail(createLREMessage(message, String.format("%s contains key %d more than once", name, keys[i])));
             }
-            else
+        }
+        return index;
+    }
+
+    /**
+     * @param keys the keys of a map
+     * @return <code>true</code> if each key is greater than the one before it
+     */
+    private static boolean isStrictlyIncreasing(long[] keys)
+    {
+        for (int i = 1; i < keys.length; i++)
+        {
+            if (keys[i - 1] >= keys[i])
             {
-                // use assertSame so that it fails and prints like the other assert errors
-                assertSame(String.format("<LRE: %f>", testlre), expected, actual);
+                return false;
             }
         }
+        return true;
     }
 
     /**
@@ -94,7 +452,7 @@ public class NumericAssertExtensions
      */
     public static void assertEqualsLRE(BigDecimal expected, BigDecimal actual, int lre)
     {
-        assertEqualsLRE("", expected, actual, lre);
+        assertEqualsLRE((MessageSupplier) null, expected, actual, lre);
     }
 
     /**
@@ -107,6 +465,38 @@ public class NumericAssertExtensions
      * @param lre log relative error desired
      */
     public static void assertEqualsLRE(@NotNull String message, BigDecimal expected, BigDecimal actual, int lre)
+    {
+        assertEqualsLRE(ConstantMessage.of(message), expected, actual, lre);
+    }
+
+    /**
+     * Assert that expected and actual are equal to within a certain log relative error. Log relative error measures the number of
+     * significant digits of agreement.
+     *
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected expected value
+     * @param actual actual value
+     * @param lre log relative error desired
+     */
+    public static void assertEqualsLRE(MessageSupplier message, BigDecimal expected, BigDecimal actual, int lre)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.EQUALS_LRE);
+        boolean passed = false;
+        try
+        {
+            doAssertEqualsLRE(message, expected, actual, lre);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.EQUALS_LRE, start, !passed, AssertionMetrics.SCALAR);
+        }
+    }
+
+    /**
+     * @see #assertEqualsLRE(MessageSupplier, BigDecimal, BigDecimal, int)
+     */
+    private static void doAssertEqualsLRE(MessageSupplier message, BigDecimal expected, BigDecimal actual, int lre)
     {
         if (expected == null && actual == null)
         {
@@ -115,7 +505,7 @@ public class NumericAssertExtensions
         else if (expected == null || actual == null)
         {
             // use the same rules as assertSame
-            assertSame(message, expected, actual);
+            assertSame(createLREMessage(message, ""), expected, actual);
         }
         // if they are the same object, return
         else if (expected.equals(actual))
@@ -129,35 +519,1076 @@ public class NumericAssertExtensions
         }
         else
         {
-            // turn the big decimal to a string and count the digits of agreement
-            char[] s_expected = expected.toString().toCharArray();
-            char[] s_actual = actual.toString().toCharArray();
-
-            int minLength = Math.min(s_expected.length, s_actual.length);
-            int testlre = 0;
-            for (int i = 0; i < minLength; i++)
-            {
-                // if they are not equal, break
-                if (s_expected[i] != s_actual[i])
-                {
-                    break;
-                }
-                // if they are equal, but one is E then break because the exponenet isn't compared
-                else if (s_expected[i] == 'E' || s_expected[i] == 'e')
-                {
-                    break;
-                }
-                // if the decimal place is compared, skip it
-                else if (s_expected[i] == '.')
-                {
-                    continue;
-                }
-                // otherwise, increase the count
-                testlre++;
-            }
+            int testlre = calculateLRE(expected, actual);
             if (testlre < lre)
             {
-                assertSame(message + String.format(" LRE: <%d>", testlre), expected.toString(), actual.toString());
+                assertSame(createLREMessage(message, "") + String.format(" LRE: <%d>", testlre), expected.toString(), actual.toString());
+            }
+        }
+    }
+
+    /**
+     * Assert that expected and actual are within a number of units in the last place (ULPs) of each other.  The distance
+     * is measured by counting the representable values between expected and actual, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.
+     * </p>
+     *
+     * @param expected expected value
+     * @param actual actual value
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(double expected, double actual, long maxUlps)
+    {
+        assertEqualsUlps((MessageSupplier) null, expected, actual, maxUlps);
+    }
+
+    /**
+     * Assert that expected and actual are within a number of units in the last place (ULPs) of each other.  The distance
+     * is measured by counting the representable values between expected and actual, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.
+     * </p>
+     *
+     * @param message message if the test fails
+     * @param expected expected value
+     * @param actual actual value
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(@NotNull String message, double expected, double actual, long maxUlps)
+    {
+        assertEqualsUlps(ConstantMessage.of(message), expected, actual, maxUlps);
+    }
+
+    /**
+     * Assert that expected and actual are within a number of units in the last place (ULPs) of each other.  The distance
+     * is measured by counting the representable values between expected and actual, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.
+     * </p>
+     *
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected expected value
+     * @param actual actual value
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(MessageSupplier message, double expected, double actual, long maxUlps)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.EQUALS_ULPS);
+        boolean passed = false;
+        try
+        {
+            doAssertEqualsUlps(message, expected, actual, maxUlps);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.EQUALS_ULPS, start, !passed, AssertionMetrics.SCALAR);
+        }
+    }
+
+    /**
+     * @see #assertEqualsUlps(MessageSupplier, double, double, long)
+     */
+    private static void doAssertEqualsUlps(MessageSupplier message, double expected, double actual, long maxUlps)
+    {
+        long ulps = ulpDistance(expected, actual);
+        if (ulps > maxUlps)
+        {
+            // use assertSame so that it fails and prints like the other assert errors
+            assertSame(createLREMessage(message, String.format("<ULPs: %d>", ulps)), expected, actual);
+        }
+    }
+
+    /**
+     * Assert that each element of expected and actual are within a number of units in the last place (ULPs) of each other.
+     * The distance is measured by counting the representable values between the elements, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.  The failure reports the element with the largest distance.
+     * </p>
+     *
+     * @param expected expected values
+     * @param actual actual values
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(double[] expected, double[] actual, long maxUlps)
+    {
+        assertEqualsUlps((MessageSupplier) null, expected, actual, maxUlps);
+    }
+
+    /**
+     * Assert that each element of expected and actual are within a number of units in the last place (ULPs) of each other.
+     * The distance is measured by counting the representable values between the elements, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.  The failure reports the element with the largest distance.
+     * </p>
+     *
+     * @param message message if the test fails
+     * @param expected expected values
+     * @param actual actual values
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(@NotNull String message, double[] expected, double[] actual, long maxUlps)
+    {
+        assertEqualsUlps(ConstantMessage.of(message), expected, actual, maxUlps);
+    }
+
+    /**
+     * Assert that each element of expected and actual are within a number of units in the last place (ULPs) of each other.
+     * The distance is measured by counting the representable values between the elements, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.  The failure reports the element with the largest distance.
+     * </p>
+     *
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected expected values
+     * @param actual actual values
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(MessageSupplier message, double[] expected, double[] actual, long maxUlps)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.EQUALS_ULPS);
+        boolean passed = false;
+        try
+        {
+            doAssertEqualsUlps(message, expected, actual, maxUlps);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.EQUALS_ULPS, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertEqualsUlps(MessageSupplier, double[], double[], long)
+     */
+    private static void doAssertEqualsUlps(MessageSupplier message, double[] expected, double[] actual, long maxUlps)
+    {
+        if (expected == null && actual == null)
+        {
+            pass();
+            return;
+        }
+        else if (expected == null || actual == null)
+        {
+            // use the same rules as assertSame
+            assertSame(createLREMessage(message, ""), expected, actual);
+            return;
+        }
+        if (expected.length != actual.length)
+        {
+            assertEquals(createLREMessage(message, "Arrays have unequal lengths"), expected.length, actual.length);
+        }
+        UlpScan scan = new UlpScan(maxUlps);
+        for (int i = 0; i < expected.length; i++)
+        {
+            scan.accept(i, expected[i], actual[i]);
+        }
+        scan.assertNoFailures(message);
+    }
+
+    /**
+     * Assert that expected and actual are within a number of units in the last place (ULPs) of each other.  The distance
+     * is measured by counting the representable values between expected and actual, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.
+     * </p>
+     *
+     * @param expected expected value
+     * @param actual actual value
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(float expected, float actual, int maxUlps)
+    {
+        assertEqualsUlps((MessageSupplier) null, expected, actual, maxUlps);
+    }
+
+    /**
+     * Assert that expected and actual are within a number of units in the last place (ULPs) of each other.  The distance
+     * is measured by counting the representable values between expected and actual, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.
+     * </p>
+     *
+     * @param message message if the test fails
+     * @param expected expected value
+     * @param actual actual value
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(@NotNull String message, float expected, float actual, int maxUlps)
+    {
+        assertEqualsUlps(ConstantMessage.of(message), expected, actual, maxUlps);
+    }
+
+    /**
+     * Assert that expected and actual are within a number of units in the last place (ULPs) of each other.  The distance
+     * is measured by counting the representable values between expected and actual, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.
+     * </p>
+     *
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected expected value
+     * @param actual actual value
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(MessageSupplier message, float expected, float actual, int maxUlps)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.EQUALS_ULPS);
+        boolean passed = false;
+        try
+        {
+            doAssertEqualsUlps(message, expected, actual, maxUlps);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.EQUALS_ULPS, start, !passed, AssertionMetrics.SCALAR);
+        }
+    }
+
+    /**
+     * @see #assertEqualsUlps(MessageSupplier, float, float, int)
+     */
+    private static void doAssertEqualsUlps(MessageSupplier message, float expected, float actual, int maxUlps)
+    {
+        long ulps = ulpDistance(expected, actual);
+        if (ulps > maxUlps)
+        {
+            // use assertSame so that it fails and prints like the other assert errors
+            assertSame(createLREMessage(message, String.format("<ULPs: %d>", ulps)), expected, actual);
+        }
+    }
+
+    /**
+     * Assert that each element of expected and actual are within a number of units in the last place (ULPs) of each other.
+     * The distance is measured by counting the representable values between the elements, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.  The failure reports the element with the largest distance.
+     * </p>
+     *
+     * @param expected expected values
+     * @param actual actual values
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(float[] expected, float[] actual, int maxUlps)
+    {
+        assertEqualsUlps((MessageSupplier) null, expected, actual, maxUlps);
+    }
+
+    /**
+     * Assert that each element of expected and actual are within a number of units in the last place (ULPs) of each other.
+     * The distance is measured by counting the representable values between the elements, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.  The failure reports the element with the largest distance.
+     * </p>
+     *
+     * @param message message if the test fails
+     * @param expected expected values
+     * @param actual actual values
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(@NotNull String message, float[] expected, float[] actual, int maxUlps)
+    {
+        assertEqualsUlps(ConstantMessage.of(message), expected, actual, maxUlps);
+    }
+
+    /**
+     * Assert that each element of expected and actual are within a number of units in the last place (ULPs) of each other.
+     * The distance is measured by counting the representable values between the elements, using their bit patterns.
+     * <p>
+     * <code>NaN</code> only matches <code>NaN</code>, an infinity only matches the same infinity, and <code>0.0</code>
+     * matches <code>-0.0</code>.  The failure reports the element with the largest distance.
+     * </p>
+     *
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected expected values
+     * @param actual actual values
+     * @param maxUlps the largest number of ULPs allowed between the values
+     */
+    public static void assertEqualsUlps(MessageSupplier message, float[] expected, float[] actual, int maxUlps)
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.EQUALS_ULPS);
+        boolean passed = false;
+        try
+        {
+            doAssertEqualsUlps(message, expected, actual, maxUlps);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.EQUALS_ULPS, start, !passed, expected);
+        }
+    }
+
+    /**
+     * @see #assertEqualsUlps(MessageSupplier, float[], float[], int)
+     */
+    private static void doAssertEqualsUlps(MessageSupplier message, float[] expected, float[] actual, int maxUlps)
+    {
+        if (expected == null && actual == null)
+        {
+            pass();
+            return;
+        }
+        else if (expected == null || actual == null)
+        {
+            // use the same rules as assertSame
+            assertSame(createLREMessage(message, ""), expected, actual);
+            return;
+        }
+        if (expected.length != actual.length)
+        {
+            assertEquals(createLREMessage(message, "Arrays have unequal lengths"), expected.length, actual.length);
+        }
+        UlpScan scan = new UlpScan(maxUlps);
+        for (int i = 0; i < expected.length; i++)
+        {
+            scan.accept(i, expected[i], actual[i]);
+        }
+        scan.assertNoFailures(message);
+    }
+
+    /**
+     * Assert that each <code>double</code> in two binary files are equal to within a certain log relative error.  Log
+     * relative error measures the number of significant digits of agreement.  The files use <code>BIG_ENDIAN</code> byte
+     * order, as written by <code>DataOutputStream</code>.
+     * <p>
+     * The files are memory mapped and compared in chunks of 64 MB, so they are never read onto the heap.  The failure
+     * reports the element with the lowest log relative error and its index in the files.
+     * </p>
+     *
+     * @param expected the file of expected values
+     * @param actual the file of actual values
+     * @param lre log relative error desired
+     * @throws IOException if a file cannot be read
+     */
+    public static void assertBinaryEqualsLRE(Path expected, Path actual, int lre) throws IOException
+    {
+        assertBinaryEqualsLRE((MessageSupplier) null, expected, actual, ByteOrder.BIG_ENDIAN, lre);
+    }
+
+    /**
+     * Assert that each <code>double</code> in two binary files are equal to within a certain log relative error.  Log
+     * relative error measures the number of significant digits of agreement.
+     * <p>
+     * The files are memory mapped and compared in chunks of 64 MB, so they are never read onto the heap.  The failure
+     * reports the element with the lowest log relative error and its index in the files.
+     * </p>
+     *
+     * @param message message if the test fails
+     * @param expected the file of expected values
+     * @param actual the file of actual values
+     * @param order the byte order of the files
+     * @param lre log relative error desired
+     * @throws IOException if a file cannot be read
+     */
+    public static void assertBinaryEqualsLRE(@NotNull String message, Path expected, Path actual, ByteOrder order,
+            int lre) throws IOException
+    {
+        assertBinaryEqualsLRE(ConstantMessage.of(message), expected, actual, order, lre);
+    }
+
+    /**
+     * Assert that each <code>double</code> in two binary files are equal to within a certain log relative error.
+     *
+     * @see #assertBinaryEqualsLRE(String, Path, Path, ByteOrder, int)
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected the file of expected values
+     * @param actual the file of actual values
+     * @param order the byte order of the files
+     * @param lre log relative error desired
+     * @throws IOException if a file cannot be read
+     */
+    public static void assertBinaryEqualsLRE(MessageSupplier message, Path expected, Path actual, ByteOrder order, int lre)
+            throws IOException
+    {
+        assertMappedEqualsLRE(message, expected, actual, null, order, lre, MAPPED_CHUNK_BYTES);
+    }
+
+    /**
+     * Assert that each <code>double</code> in a binary file and the remaining values of a <code>DoubleBuffer</code> are
+     * equal to within a certain log relative error.  Log relative error measures the number of significant digits of
+     * agreement.  The file uses <code>BIG_ENDIAN</code> byte order, as written by <code>DataOutputStream</code>.
+     * <p>
+     * The file is memory mapped and compared in chunks of 64 MB, so it is never read onto the heap.  The position of
+     * the buffer is not changed.  The failure reports the element with the lowest log relative error and its index
+     * from the start of the file.
+     * </p>
+     *
+     * @param expected the file of expected values
+     * @param actual the actual values
+     * @param lre log relative error desired
+     * @throws IOException if a file cannot be read
+     */
+    public static void assertBinaryEqualsLRE(Path expected, DoubleBuffer actual, int lre) throws IOException
+    {
+        assertBinaryEqualsLRE((MessageSupplier) null, expected, actual, ByteOrder.BIG_ENDIAN, lre);
+    }
+
+    /**
+     * Assert that each <code>double</code> in a binary file and the remaining values of a <code>DoubleBuffer</code> are
+     * equal to within a certain log relative error.  Log relative error measures the number of significant digits of
+     * agreement.
+     * <p>
+     * The file is memory mapped and compared in chunks of 64 MB, so it is never read onto the heap.  The position of
+     * the buffer is not changed.  The failure reports the element with the lowest log relative error and its index
+     * from the start of the file.
+     * </p>
+     *
+     * @param message message if the test fails
+     * @param expected the file of expected values
+     * @param actual the actual values
+     * @param order the byte order of the file
+     * @param lre log relative error desired
+     * @throws IOException if a file cannot be read
+     */
+    public static void assertBinaryEqualsLRE(@NotNull String message, Path expected, DoubleBuffer actual,
+            ByteOrder order, int lre) throws IOException
+    {
+        assertBinaryEqualsLRE(ConstantMessage.of(message), expected, actual, order, lre);
+    }
+
+    /**
+     * Assert that each <code>double</code> in a binary file and the remaining values of a <code>DoubleBuffer</code> are
+     * equal to within a certain log relative error.
+     *
+     * @see #assertBinaryEqualsLRE(String, Path, DoubleBuffer, ByteOrder, int)
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected the file of expected values
+     * @param actual the actual values
+     * @param order the byte order of the file
+     * @param lre log relative error desired
+     * @throws IOException if a file cannot be read
+     */
+    public static void assertBinaryEqualsLRE(MessageSupplier message, Path expected, DoubleBuffer actual, ByteOrder order, int lre)
+            throws IOException
+    {
+        assertMappedEqualsLRE(message, expected, null, actual, order, lre, MAPPED_CHUNK_BYTES);
+    }
+
+    /**
+     * Compare a memory mapped file of expected values with a file or a buffer of actual values, one chunk at a time
+     *
+     * @param message supplies the message if the test fails, which may be <code>null</code>
+     * @param expected the file of expected values
+     * @param actualPath the file of actual values, or <code>null</code> to use actualBuffer
+     * @param actualBuffer the actual values, used if actualPath is <code>null</code>
+     * @param order the byte order of the files
+     * @param lre log relative error desired
+     * @param chunkBytes the number of bytes to map at a time, which is a multiple of 8
+     * @throws IOException if a file cannot be read
+     */
+    static void assertMappedEqualsLRE(MessageSupplier message, Path expected, Path actualPath, DoubleBuffer actualBuffer,
+            ByteOrder order, int lre, long chunkBytes) throws IOException
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.BINARY_EQUALS_LRE);
+        boolean passed = false;
+        try
+        {
+            doAssertMappedEqualsLRE(message, expected, actualPath, actualBuffer, order, lre, chunkBytes);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.BINARY_EQUALS_LRE, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertMappedEqualsLRE(MessageSupplier, Path, Path, DoubleBuffer, ByteOrder, int, long)
+     */
+    private static void doAssertMappedEqualsLRE(MessageSupplier message, Path expected, Path actualPath, DoubleBuffer actualBuffer,
+            ByteOrder order, int lre, long chunkBytes) throws IOException
+    {
+        try (FileChannel expectedChannel = FileChannel.open(expected, StandardOpenOption.READ);
+                FileChannel actualChannel = actualPath == null ? null : FileChannel.open(actualPath, StandardOpenOption.READ))
+        {
+            long size = checkBinaryLength(message, expected, expectedChannel);
+            if (actualChannel != null)
+            {
+                long actualSize = checkBinaryLength(message, actualPath, actualChannel);
+                if (size != actualSize)
+                {
+                    assertEquals(createLREMessage(message, "Files have unequal lengths"), size, actualSize);
+                }
+            }
+            else if (size / 8 != actualBuffer.remaining())
+            {
+                assertEquals(createLREMessage(message, "File and buffer have unequal lengths"), size / 8, actualBuffer.remaining());
+            }
+            DoubleBuffer actualValues = actualBuffer == null ? null : actualBuffer.duplicate();
+            LREScan scan = new LREScan(lre);
+            long index = 0;
+            for (long position = 0; position < size; position += chunkBytes)
+            {
+                long length = Math.min(chunkBytes, size - position);
+                DoubleBuffer expectedValues = map(expectedChannel, position, length, order);
+                if (actualChannel != null)
+                {
+                    actualValues = map(actualChannel, position, length, order);
+                }
+                while (expectedValues.hasRemaining())
+                {
+                    scan.accept(index++, expectedValues.get(), actualValues.get());
+                }
+            }
+            scan.assertNoFailures(message);
+        }
+    }
+
+    /**
+     * @param message supplies the message if the test fails, which may be <code>null</code>
+     * @param path the file
+     * @param channel the open file
+     * @return the length of the file, which is checked to be a whole number of <code>doubles</code>
+     * @throws IOException if the file cannot be read
+     */
+    private static long checkBinaryLength(MessageSupplier message, Path path, FileChannel channel) throws IOException
+    {
+        long size = channel.size();
+        if (size % 8 != 0)
+        {
+            fail(createLREMessage(message, String.format("The length of %s is %d bytes, which is not a multiple of 8", path, size)));
+        }
+        return size;
+    }
+
+    /**
+     * @param channel the open file
+     * @param position the first byte to map
+     * @param length the number of bytes to map
+     * @param order the byte order of the file
+     * @return the mapped bytes as <code>doubles</code>
+     * @throws IOException if the file cannot be mapped
+     */
+    private static DoubleBuffer map(FileChannel channel, long position, long length, ByteOrder order) throws IOException
+    {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(order).asDoubleBuffer();
+    }
+
+    /**
+     * Assert that each cell of two numeric text tables, such as CSV files, are equal to within a certain log relative
+     * error.  Log relative error measures the number of significant digits of agreement.
+     * <p>
+     * Cells are separated by commas, spaces, tabs and line breaks, which may be <code>\n</code>, <code>\r\n</code>
+     * or <code>\r</code>.  The files are read through a reusable buffer.  Most decimal numbers are parsed from their
+     * bytes, and cells that cannot be numbers are rejected from their bytes, so neither creates a <code>String</code>.
+     * Other cells, like numbers with more than 15 significant digits, are parsed with <code>Double.parseDouble</code>.
+     * Cells that are not numbers, like a header row, must match exactly.  The failure reports the row and column of the first cell that
+     * does not match.
+     * </p>
+     *
+     * @param expected the file of expected values
+     * @param actual the file of actual values
+     * @param lre log relative error desired
+     * @throws IOException if a file cannot be read
+     */
+    public static void assertTextEqualsLRE(Path expected, Path actual, int lre) throws IOException
+    {
+        assertTextEqualsLRE((MessageSupplier) null, expected, actual, lre);
+    }
+
+    /**
+     * Assert that each cell of two numeric text tables, such as CSV files, are equal to within a certain log relative
+     * error.  Log relative error measures the number of significant digits of agreement.
+     * <p>
+     * Cells are separated by commas, spaces, tabs and line breaks, which may be <code>\n</code>, <code>\r\n</code>
+     * or <code>\r</code>.  The files are read through a reusable buffer.  Most decimal numbers are parsed from their
+     * bytes, and cells that cannot be numbers are rejected from their bytes, so neither creates a <code>String</code>.
+     * Other cells, like numbers with more than 15 significant digits, are parsed with <code>Double.parseDouble</code>.
+     * Cells that are not numbers, like a header row, must match exactly.  The failure reports the row and column of the first cell that
+     * does not match.
+     * </p>
+     *
+     * @param message message if the test fails
+     * @param expected the file of expected values
+     * @param actual the file of actual values
+     * @param lre log relative error desired
+     * @throws IOException if a file cannot be read
+     */
+    public static void assertTextEqualsLRE(@NotNull String message, Path expected, Path actual, int lre) throws IOException
+    {
+        assertTextEqualsLRE(ConstantMessage.of(message), expected, actual, lre);
+    }
+
+    /**
+     * Assert that each cell of two numeric text tables, such as CSV files, are equal to within a certain log relative
+     * error.
+     *
+     * @see #assertTextEqualsLRE(String, Path, Path, int)
+     * @param message supplies the message if the test fails.  It is not called when the test passes.
+     * @param expected the file of expected values
+     * @param actual the file of actual values
+     * @param lre log relative error desired
+     * @throws IOException if a file cannot be read
+     */
+    public static void assertTextEqualsLRE(MessageSupplier message, Path expected, Path actual, int lre) throws IOException
+    {
+        long start = AssertionMetrics.begin(AssertionMetrics.Metric.TEXT_EQUALS_LRE);
+        boolean passed = false;
+        try
+        {
+            doAssertTextEqualsLRE(message, expected, actual, lre);
+            passed = true;
+        }
+        finally
+        {
+            AssertionMetrics.end(AssertionMetrics.Metric.TEXT_EQUALS_LRE, start, !passed);
+        }
+    }
+
+    /**
+     * @see #assertTextEqualsLRE(MessageSupplier, Path, Path, int)
+     */
+    private static void doAssertTextEqualsLRE(MessageSupplier message, Path expected, Path actual, int lre) throws IOException
+    {
+        try (NumericTableReader expectedCells = new NumericTableReader(expected);
+                NumericTableReader actualCells = new NumericTableReader(actual))
+        {
+            assertTextEqualsLRE(message, expectedCells, actualCells, lre);
+        }
+    }
+
+    /**
+     * Compare the cells of two tables until the first cell that does not match
+     *
+     * @param message supplies the message if the test fails, which may be <code>null</code>
+     * @param expected the expected cells
+     * @param actual the actual cells
+     * @param lre log relative error desired
+     * @throws IOException if a file cannot be read
+     */
+    static void assertTextEqualsLRE(MessageSupplier message, NumericTableReader expected, NumericTableReader actual, int lre)
+            throws IOException
+    {
+        while (true)
+        {
+            boolean expectedNext = expected.next();
+            boolean actualNext = actual.next();
+            if (!expectedNext || !actualNext)
+            {
+                if (expectedNext || actualNext)
+                {
+                    NumericTableReader longer = expectedNext ? expected : actual;
+                    fail(createLREMessage(message, String.format("%s has more cells, starting at row %d, column %d",
+                            expectedNext ? "Expected" : "Actual", longer.row(), longer.column())));
+                }
+                return;
+            }
+            if (expected.row() != actual.row() || expected.column() != actual.column())
+            {
+                fail(createLREMessage(message, String.format("The tables have different shapes; expected row %d, column %d but was row %d, column %d",
+                        expected.row(), expected.column(), actual.row(), actual.column())));
+            }
+            String position = null;
+            if (expected.isNumber() && actual.isNumber())
+            {
+                // the same check as the scalar assertEqualsLRE
+                if (expected.value() != actual.value())
+                {
+                    double testlre = calculateLRE(expected.value(), actual.value());
+                    if ((int) Math.floor(testlre) < lre)
+                    {
+                        position = String.format("<LRE: %f> at row %d, column %d", testlre, expected.row(),
+                                expected.column());
+                    }
+                }
+            }
+            else if (expected.isNumber() || actual.isNumber() || !expected.textEquals(actual))
+            {
+                position = String.format("at row %d, column %d", expected.row(), expected.column());
+            }
+            if (position != null)
+            {
+                // cells with the same text only fail when both are NaN, which assertEquals would pass
+                if (expected.textEquals(actual))
+                {
+                    fail(createLREMessage(message, position));
+                }
+                assertEquals(createLREMessage(message, position), expected.text(), actual.text());
+            }
+        }
+    }
+
+    /**
+     * private method to create the message of a failed assert.  Only called once the assert has failed.
+     *
+     * @param message supplies the message from the caller, which may be <code>null</code>
+     * @param detail the description of the failure, which may be empty
+     * @return the message followed by the detail
+     */
+    private static String createLREMessage(MessageSupplier message, @NotNull String detail)
+    {
+        String prefix = message == null ? null : message.get();
+        if (prefix == null || prefix.isEmpty())
+        {
+            return detail;
+        }
+        else if (detail.isEmpty())
+        {
+            return prefix;
+        }
+        return prefix + " " + detail;
+    }
+
+    /**
+     * Calculate the log relative error of actual with respect to expected.  When expected is zero, the log absolute error
+     * is used instead.
+     *
+     * @param expected expected value
+     * @param actual actual value
+     * @return the log relative error
+     */
+    static double calculateLRE(double expected, double actual)
+    {
+        if (expected == 0.0)
+        {
+            return -1.0 * Math.log10(Math.abs(actual));
+        }
+        else
+        {
+            return -1.0 * Math.log10(Math.abs(actual - expected)) + Math.log10(Math.abs(expected));
+        }
+    }
+
+    /**
+     * Calculate the number of leading significant digits that agree between two unequal <code>BigDecimal</code> values,
+     * without converting them to strings.
+     * <p>
+     * Values with different signs, or whose most significant digits are in different decimal places, agree in no
+     * digits.  Otherwise both unscaled values are brought to the same scale, where they have the same number of digits,
+     * and the longest common prefix is found by a binary search over divisions by powers of ten.  When expected is zero,
+     * the number of zeros after the decimal point of actual is used, like the log absolute error.
+     * </p>
+     *
+     * @param expected expected value
+     * @param actual actual value, which is not numerically equal to expected
+     * @return the number of significant digits of agreement
+     */
+    static int calculateLRE(BigDecimal expected, BigDecimal actual)
+    {
+        if (expected.signum() == 0)
+        {
+            // the place of the most significant digit of actual, less one unless actual is a power of ten
+            int exponent = mostSignificantExponent(actual);
+            BigInteger unscaled = actual.unscaledValue().abs();
+            boolean powerOfTen = unscaled.equals(BigInteger.TEN.pow(actual.precision() - 1));
+            return Math.max(0, powerOfTen ? -exponent : -exponent - 1);
+        }
+        if (expected.signum() != actual.signum()
+                || mostSignificantExponent(expected) != mostSignificantExponent(actual))
+        {
+            return 0;
+        }
+        int scale = Math.max(expected.scale(), actual.scale());
+        BigInteger unscaledExpected = rescale(expected, scale);
+        BigInteger unscaledActual = rescale(actual, scale);
+        // both have the same most significant place and scale, so the same number of digits
+        int digits = expected.precision() + scale - expected.scale();
+        // the first low digits agree and the first high digits do not
+        int low = 0;
+        int high = digits;
+        while (high - low > 1)
+        {
+            int middle = (low + high) >>> 1;
+            BigInteger divisor = BigInteger.TEN.pow(digits - middle);
+            if (unscaledExpected.divide(divisor).equals(unscaledActual.divide(divisor)))
+            {
+                low = middle;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param value a non-zero value
+     * @return the power of ten of the most significant digit of the value
+     */
+    private static int mostSignificantExponent(BigDecimal value)
+    {
+        return value.precision() - value.scale() - 1;
+    }
+
+    /**
+     * @param value a value
+     * @param scale a scale that is not less than the scale of the value
+     * @return the absolute unscaled value of the value at the new scale
+     */
+    private static BigInteger rescale(BigDecimal value, int scale)
+    {
+        BigInteger unscaled = value.unscaledValue().abs();
+        return scale == value.scale() ? unscaled : unscaled.multiply(BigInteger.TEN.pow(scale - value.scale()));
+    }
+
+    /**
+     * Calculate the number of representable <code>double</code> values between expected and actual.  The bit patterns
+     * are mapped to integers in the same order as the values, so that the distance is a subtraction.
+     *
+     * @param expected expected value
+     * @param actual actual value
+     * @return the distance in ULPs, which is <code>0</code> for two <code>NaN</code> values and
+     * <code>Long.MAX_VALUE</code> for <code>NaN</code> and a number or an infinity and a different value
+     */
+    static long ulpDistance(double expected, double actual)
+    {
+        long expectedBits = Double.doubleToRawLongBits(expected);
+        long actualBits = Double.doubleToRawLongBits(actual);
+        if (expectedBits == actualBits)
+        {
+            return 0;
+        }
+        // NaN and the infinities are the only values with every exponent bit set
+        if ((expectedBits & DOUBLE_EXPONENT_BITS) == DOUBLE_EXPONENT_BITS
+                || (actualBits & DOUBLE_EXPONENT_BITS) == DOUBLE_EXPONENT_BITS)
+        {
+            return Double.isNaN(expected) && Double.isNaN(actual) ? 0 : Long.MAX_VALUE;
+        }
+        long x = orderedBits(expectedBits);
+        long y = orderedBits(actualBits);
+        long difference = x - y;
+        // saturate when the subtraction overflows, which needs values of opposite signs
+        if (((x ^ y) & (x ^ difference)) < 0)
+        {
+            return Long.MAX_VALUE;
+        }
+        return difference < 0 ? -difference : difference;
+    }
+
+    /**
+     * Calculate the number of representable <code>float</code> values between expected and actual.
+     *
+     * @param expected expected value
+     * @param actual actual value
+     * @return the distance in ULPs, which is <code>0</code> for two <code>NaN</code> values and
+     * <code>Long.MAX_VALUE</code> for <code>NaN</code> and a number or an infinity and a different value
+     */
+    static long ulpDistance(float expected, float actual)
+    {
+        int expectedBits = Float.floatToRawIntBits(expected);
+        int actualBits = Float.floatToRawIntBits(actual);
+        if (expectedBits == actualBits)
+        {
+            return 0;
+        }
+        // NaN and the infinities are the only values with every exponent bit set
+        if ((expectedBits & FLOAT_EXPONENT_BITS) == FLOAT_EXPONENT_BITS
+                || (actualBits & FLOAT_EXPONENT_BITS) == FLOAT_EXPONENT_BITS)
+        {
+            return Float.isNaN(expected) && Float.isNaN(actual) ? 0 : Long.MAX_VALUE;
+        }
+        // the difference of two ints cannot overflow a long
+        long difference = (long) orderedBits(expectedBits) - orderedBits(actualBits);
+        return difference < 0 ? -difference : difference;
+    }
+
+    /**
+     * @param bits the bit pattern of a <code>double</code>
+     * @return an integer that orders the same as the value, with <code>0.0</code> and <code>-0.0</code> both
+     * mapped to <code>0</code>
+     */
+    private static long orderedBits(long bits)
+    {
+        return bits < 0 ? Long.MIN_VALUE - bits : bits;
+    }
+
+    /**
+     * @param bits the bit pattern of a <code>float</code>
+     * @return an integer that orders the same as the value, with <code>0.0f</code> and <code>-0.0f</code> both
+     * mapped to <code>0</code>
+     */
+    private static int orderedBits(int bits)
+    {
+        return bits < 0 ? Integer.MIN_VALUE - bits : bits;
+    }
+
+    /**
+     * Checks many pairs of values against a log relative error and remembers the worst one.
+     * <p>
+     * <code>floor(LRE) &lt; lre</code> is the same as a relative error greater than <code>10^-lre</code>, so pairs that
+     * are clearly inside that threshold pass without calculating a logarithm.  Pairs near or beyond the threshold are
+     * decided with the same calculation as the scalar <code>assertEqualsLRE</code> so that both always agree.
+     * </p>
+     */
+    static final class LREScan
+    {
+        /**
+         * Fraction of the relative error threshold below which a pair passes without calculating the LRE
+         */
+        private static final double THRESHOLD_MARGIN = 1.0 - 1.0E-9;
+
+        private final int lre;
+        private final double threshold;
+        private final String position;
+        private long failures;
+        private long worstIndex;
+        private double worstRank;
+        private double worstLRE;
+        private double worstExpected;
+        private double worstActual;
+
+        /**
+         * @param lre log relative error desired
+         */
+        LREScan(int lre)
+        {
+            this(lre, "index");
+        }
+
+        /**
+         * @param lre log relative error desired
+         * @param position what the position of a pair is called in the failure message
+         */
+        LREScan(int lre, String position)
+        {
+            this.lre = lre;
+            this.threshold = Math.pow(10.0, -lre) * THRESHOLD_MARGIN;
+            this.position = position;
+        }
+
+        /**
+         * Check one pair of values
+         *
+         * @param index the position of the values, used in the failure message
+         * @param expected expected value
+         * @param actual actual value
+         * @return <code>true</code> if the pair did not meet the log relative error
+         */
+        boolean accept(long index, double expected, double actual)
+        {
+            if (expected == actual)
+            {
+                return false;
+            }
+            double scale = expected == 0.0 ? 1.0 : Math.abs(expected);
+            // written so that NaN falls through to the exact calculation
+            if (Math.abs(actual - expected) < threshold * scale)
+            {
+                return false;
+            }
+            double testlre = calculateLRE(expected, actual);
+            if ((int) Math.floor(testlre) < lre)
+            {
+                failures++;
+                // a NaN LRE ranks below every other value
+                double rank = Double.isNaN(testlre) ? Double.NEGATIVE_INFINITY : testlre;
+                // positions may be negative map keys, so the first failure is found by the count
+                if (failures == 1 || rank < worstRank)
+                {
+                    worstIndex = index;
+                    worstRank = rank;
+                    worstLRE = testlre;
+                    worstExpected = expected;
+                    worstActual = actual;
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Fail with the worst pair if any pair did not meet the log relative error
+         *
+         * @param message supplies the message if the test fails, which may be <code>null</code>
+         */
+        void assertNoFailures(MessageSupplier message)
+        {
+            if (failures > 0)
+            {
+                String lreMessage = String.format("<LRE: %f> at %s %d; %d elements failed", worstLRE, position, worstIndex, failures);
+                // use assertSame so that it fails and prints like the other assert errors
+                assertSame(createLREMessage(message, lreMessage), worstExpected, worstActual);
+            }
+        }
+    }
+
+    /**
+     * Checks many pairs of values against a distance in ULPs and remembers the worst one.
+     */
+    static final class UlpScan
+    {
+        private final long maxUlps;
+        private long failures;
+        private long worstIndex = -1;
+        private long worstUlps;
+        private double worstExpected;
+        private double worstActual;
+
+        /**
+         * @param maxUlps the largest number of ULPs allowed between the values
+         */
+        UlpScan(long maxUlps)
+        {
+            this.maxUlps = maxUlps;
+        }
+
+        /**
+         * Check one pair of <code>double</code> values
+         *
+         * @param index the position of the values, used in the failure message
+         * @param expected expected value
+         * @param actual actual value
+         */
+        void accept(long index, double expected, double actual)
+        {
+            record(index, ulpDistance(expected, actual), expected, actual);
+        }
+
+        /**
+         * Check one pair of <code>float</code> values
+         *
+         * @param index the position of the values, used in the failure message
+         * @param expected expected value
+         * @param actual actual value
+         */
+        void accept(long index, float expected, float actual)
+        {
+            record(index, ulpDistance(expected, actual), expected, actual);
+        }
+
+        private void record(long index, long ulps, double expected, double actual)
+        {
+            if (ulps > maxUlps)
+            {
+                failures++;
+                if (worstIndex < 0 || ulps > worstUlps)
+                {
+                    worstIndex = index;
+                    worstUlps = ulps;
+                    worstExpected = expected;
+                    worstActual = actual;
+                }
+            }
+        }
+
+        /**
+         * Fail with the worst pair if any pair was too far apart
+         *
+         * @param message supplies the message if the test fails, which may be <code>null</code>
+         */
+        void assertNoFailures(MessageSupplier message)
+        {
+            if (failures > 0)
+            {
+                String ulpMessage = String.format("<ULPs: %d> at index %d; %d elements failed", worstUlps, worstIndex, failures);
+                // use assertSame so that it fails and prints like the other assert errors
+                assertSame(createLREMessage(message, ulpMessage), worstExpected, worstActual);
             }
         }
     }
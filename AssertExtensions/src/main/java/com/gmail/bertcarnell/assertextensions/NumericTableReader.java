@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the cells of a numeric text table, such as a CSV file, for <code>assertTextEqualsLRE</code>.
+ * <p>
+ * The file is read through a channel into one reusable buffer and split into cells on commas, spaces, tabs and line
+ * breaks.  A line may end with <code>\n</code>, <code>\r\n</code> or <code>\r</code>.  Consecutive separators are
+ * treated as one, so empty cells are skipped.  Numbers are parsed from the bytes of the cell.  When the number has at most 15 significant
+ * digits and a power of ten no larger than 22, it is calculated exactly with one multiplication or division, as
+ * described by Clinger.  Other cells are screened by their bytes, so that labels like a header row are kept as text
+ * without creating a <code>String</code> or an exception, and only the cells that may be numbers are passed to
+ * <code>Double.parseDouble</code>.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+final class NumericTableReader implements Closeable
+{
+    /**
+     * The size of the read buffer
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The largest number of significant digits that can be held exactly in a <code>double</code>
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    /**
+     * The powers of ten that can be held exactly in a <code>double</code>
+     */
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11,
+        1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22
+    };
+
+    private static final byte[] NAN = "NaN".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INFINITY = "Infinity".getBytes(StandardCharsets.US_ASCII);
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] cell = new byte[64];
+    private int cellLength;
+    private long row = 1;
+    private int column;
+    private boolean number;
+    private double value;
+    private boolean endOfInput;
+    private boolean afterCarriageReturn;
+
+    /**
+     * @param path the file to read
+     * @throws IOException if the file cannot be opened
+     */
+    NumericTableReader(Path path) throws IOException
+    {
+        this(FileChannel.open(path, StandardOpenOption.READ), BUFFER_SIZE);
+    }
+
+    /**
+     * @param channel the channel to read, which is closed by <code>close</code>
+     * @param bufferSize the size of the read buffer
+     */
+    NumericTableReader(ReadableByteChannel channel, int bufferSize)
+    {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        // start with an empty buffer
+        this.buffer.flip();
+    }
+
+    /**
+     * Move to the next cell
+     *
+     * @return <code>false</code> if there are no more cells
+     * @throws IOException if the file cannot be read
+     */
+    boolean next() throws IOException
+    {
+        cellLength = 0;
+        // skip the separators before the cell
+        while (true)
+        {
+            if (!buffer.hasRemaining() && !fill())
+            {
+                return false;
+            }
+            byte b = buffer.get(buffer.position());
+            if (!isSeparator(b))
+            {
+                break;
+            }
+            buffer.get();
+            // the \n of \r\n ends the same line as the \r
+            if (b == '\r' || b == '\n' && !afterCarriageReturn)
+            {
+                row++;
+                column = 0;
+            }
+            afterCarriageReturn = b == '\r';
+        }
+        // copy the cell, which may continue in the next buffer
+        while (buffer.hasRemaining() || fill())
+        {
+            byte b = buffer.get(buffer.position());
+            if (isSeparator(b))
+            {
+                break;
+            }
+            buffer.get();
+            if (cellLength == cell.length)
+            {
+                cell = Arrays.copyOf(cell, cell.length * 2);
+            }
+            cell[cellLength++] = b;
+        }
+        afterCarriageReturn = false;
+        column++;
+        parse();
+        return true;
+    }
+
+    /**
+     * @return the line of the current cell, starting from 1
+     */
+    long row()
+    {
+        return row;
+    }
+
+    /**
+     * @return the position of the current cell in its line, starting from 1
+     */
+    int column()
+    {
+        return column;
+    }
+
+    /**
+     * @return <code>true</code> if the current cell is a number
+     */
+    boolean isNumber()
+    {
+        return number;
+    }
+
+    /**
+     * @return the value of the current cell, if it is a number
+     */
+    double value()
+    {
+        return value;
+    }
+
+    /**
+     * @param other another reader
+     * @return <code>true</code> if the current cells of both readers have the same bytes
+     */
+    boolean textEquals(NumericTableReader other)
+    {
+        if (cellLength != other.cellLength)
+        {
+            return false;
+        }
+        for (int i = 0; i < cellLength; i++)
+        {
+            if (cell[i] != other.cell[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the text of the current cell.  Only used for failure messages.
+     */
+    String text()
+    {
+        return new String(cell, 0, cellLength, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Read more of the file into the buffer
+     *
+     * @return <code>false</code> at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    private boolean fill() throws IOException
+    {
+        if (endOfInput)
+        {
+            return false;
+        }
+        buffer.clear();
+        int read = 0;
+        while (read == 0)
+        {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        if (read < 0)
+        {
+            endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param b a byte of the file
+     * @return <code>true</code> if the byte separates cells
+     */
+    private static boolean isSeparator(byte b)
+    {
+        return b == ',' || b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    /**
+     * Parse the current cell as a number, using the exact fast path when possible
+     */
+    private void parse()
+    {
+        if (!parseExact())
+        {
+            if (!mayBeNumber())
+            {
+                number = false;
+                return;
+            }
+            try
+            {
+                value = Double.parseDouble(text());
+                number = true;
+            }
+            catch (NumberFormatException e)
+            {
+                number = false;
+            }
+        }
+    }
+
+    /**
+     * Screen the current cell before <code>Double.parseDouble</code>, which is slow to reject text
+     *
+     * @return <code>false</code> if the cell is certainly not a number
+     */
+    private boolean mayBeNumber()
+    {
+        int i = 0;
+        if (i < cellLength && (cell[i] == '-' || cell[i] == '+'))
+        {
+            i++;
+        }
+        if (i == cellLength)
+        {
+            return false;
+        }
+        if (cell[i] == 'N')
+        {
+            return matches(i, NAN);
+        }
+        if (cell[i] == 'I')
+        {
+            return matches(i, INFINITY);
+        }
+        if ((cell[i] < '0' || cell[i] > '9') && cell[i] != '.')
+        {
+            return false;
+        }
+        // digits, signs and points, with the letters of exponents, hexadecimal numbers and type suffixes
+        for (; i < cellLength; i++)
+        {
+            byte b = cell[i];
+            if ((b < '0' || b > '9') && b != '.' && b != '-' && b != '+' && (b < 'a' || b > 'f')
+                    && (b < 'A' || b > 'F') && b != 'x' && b != 'X' && b != 'p' && b != 'P')
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param start the position in the current cell
+     * @param word the bytes expected from that position to the end of the cell
+     * @return <code>true</code> if the rest of the cell is the word
+     */
+    private boolean matches(int start, byte[] word)
+    {
+        if (cellLength - start != word.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < word.length; i++)
+        {
+            if (cell[start + i] != word[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse the current cell when it is a decimal number that a <code>double</code> can represent exactly after at
+     * most one multiplication or division by an exact power of ten
+     *
+     * @return <code>false</code> if the cell must be parsed by <code>Double.parseDouble</code>
+     */
+    private boolean parseExact()
+    {
+        int i = 0;
+        boolean negative = false;
+        if (i < cellLength && (cell[i] == '-' || cell[i] == '+'))
+        {
+            negative = cell[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean point = false;
+        for (; i < cellLength; i++)
+        {
+            byte b = cell[i];
+            if (b >= '0' && b <= '9')
+            {
+                digits++;
+                if (mantissa != 0 || b != '0')
+                {
+                    if (++significantDigits > MAX_EXACT_DIGITS)
+                    {
+                        return false;
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                }
+                if (point)
+                {
+                    exponent--;
+                }
+            }
+            else if (b == '.' && !point)
+            {
+                point = true;
+            }
+            else
+            {
+                break;
+            }
+        }
+        if (digits == 0)
+        {
+            return false;
+        }
+        if (i < cellLength)
+        {
+            if (cell[i] != 'e' && cell[i] != 'E' || ++i == cellLength)
+            {
+                return false;
+            }
+            boolean negativeExponent = false;
+            if (cell[i] == '-' || cell[i] == '+')
+            {
+                negativeExponent = cell[i] == '-';
+                if (++i == cellLength)
+                {
+                    return false;
+                }
+            }
+            int written = 0;
+            for (; i < cellLength; i++)
+            {
+                byte b = cell[i];
+                if (b < '0' || b > '9' || written > 1000)
+                {
+                    return false;
+                }
+                written = written * 10 + (b - '0');
+            }
+            exponent += negativeExponent ? -written : written;
+        }
+        double result = mantissa;
+        if (mantissa != 0)
+        {
+            if (exponent < -22 || exponent > 22)
+            {
+                return false;
+            }
+            result = exponent < 0 ? result / EXACT_POWERS_OF_TEN[-exponent] : result * EXACT_POWERS_OF_TEN[exponent];
+        }
+        value = negative ? -result : result;
+        number = true;
+        return true;
+    }
+}
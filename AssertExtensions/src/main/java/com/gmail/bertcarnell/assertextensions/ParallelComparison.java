@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the first difference between two large inputs by splitting them across a <code>ForkJoinPool</code>, for the
+ * parallel <code>assertListEqualsParallel</code> and <code>assertMapEqualsParallel</code>.
+ * <p>
+ * All workers share the lowest index found so far.  A worker stops as soon as it reaches that index, so a difference
+ * short-circuits every worker to its right, while workers to its left keep going in case there is a lower one.  The
+ * index found is always the lowest, just as for the sequential comparison.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+final class ParallelComparison
+{
+    /**
+     * Inputs smaller than this are compared on the calling thread
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * The number of elements compared by one task
+     */
+    private static final int LEAF_SIZE = 1 << 13;
+
+    /**
+     * The number of elements compared between checks of the lowest index found by other tasks
+     */
+    private static final int CHECK_INTERVAL = 1 << 10;
+
+    /**
+     * Prevent instantiation of this class.
+     */
+    private ParallelComparison() {}
+
+    /**
+     * The pool used when the caller does not provide one.  It is created the first time it is needed, and its
+     * worker threads are daemon threads.
+     */
+    private static final class SharedPool
+    {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    /**
+     * @return the shared pool
+     */
+    static ForkJoinPool sharedPool()
+    {
+        return SharedPool.POOL;
+    }
+
+    /**
+     * Find the index of the first element that differs between two lists of the same size.  Lists that do not
+     * implement <code>RandomAccess</code> are copied to arrays first.
+     *
+     * @param pool the pool to run the comparison in
+     * @param expected the expected list
+     * @param actual the actual list
+     * @return the lowest index of an element that differs, or <code>-1</code> if the lists are equal
+     */
+    static int firstListDifference(ForkJoinPool pool, List<?> expected, List<?> actual)
+    {
+        AtomicInteger lowest = new AtomicInteger(Integer.MAX_VALUE);
+        pool.invoke(new ListTask(randomAccess(expected), randomAccess(actual), 0, expected.size(), lowest));
+        return lowest.get() == Integer.MAX_VALUE ? -1 : lowest.get();
+    }
+
+    /**
+     * Find the first entry of expected, in its iteration order, that is missing from actual or has a different value.
+     * The entries of expected are copied to an array, and actual is only read, so it must support concurrent reads.
+     * Its lookups must not modify it, as they do in a <code>LinkedHashMap</code> in access order.
+     *
+     * @param pool the pool to run the comparison in
+     * @param expected the expected map
+     * @param actual the actual map
+     * @return the first entry that differs, or <code>null</code> if every entry of expected is in actual
+     */
+    static Entry<?, ?> firstMapDifference(ForkJoinPool pool, Map<?, ?> expected, Map<?, ?> actual)
+    {
+        Object[] entries = expected.entrySet().toArray();
+        AtomicInteger lowest = new AtomicInteger(Integer.MAX_VALUE);
+        pool.invoke(new MapTask(entries, actual, 0, entries.length, lowest));
+        return lowest.get() == Integer.MAX_VALUE ? null : (Entry<?, ?>) entries[lowest.get()];
+    }
+
+    /**
+     * @param list a list
+     * @return the list, or a copy of it that implements <code>RandomAccess</code>
+     */
+    private static List<?> randomAccess(List<?> list)
+    {
+        return list instanceof RandomAccess ? list : Arrays.asList(list.toArray());
+    }
+
+    /**
+     * @param expected the expected value
+     * @param actual the actual value
+     * @return <code>true</code> if the values are equal, using the same rule as <code>assertEquals</code>
+     */
+    private static boolean isEqual(Object expected, Object actual)
+    {
+        return expected == null ? actual == null : expected.equals(actual);
+    }
+
+    /**
+     * Record a difference, keeping the lowest index
+     *
+     * @param lowest the lowest index found by any task
+     * @param index the index of the difference
+     */
+    private static void recordDifference(AtomicInteger lowest, int index)
+    {
+        int current = lowest.get();
+        while (index < current && !lowest.compareAndSet(current, index))
+        {
+            current = lowest.get();
+        }
+    }
+
+    /**
+     * A range of indices to compare, split in half until it is small enough to compare directly
+     */
+    private abstract static class RangeTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        final int from;
+        final int to;
+        final AtomicInteger lowest;
+
+        RangeTask(int from, int to, AtomicInteger lowest)
+        {
+            this.from = from;
+            this.to = to;
+            this.lowest = lowest;
+        }
+
+        @Override
+        protected final void compute()
+        {
+            if (from >= lowest.get())
+            {
+                return;
+            }
+            if (to - from <= LEAF_SIZE)
+            {
+                for (int i = from; i < to; i++)
+                {
+                    if ((i & (CHECK_INTERVAL - 1)) == 0 && i >= lowest.get())
+                    {
+                        return;
+                    }
+                    if (!matches(i))
+                    {
+                        recordDifference(lowest, i);
+                        return;
+                    }
+                }
+            }
+            else
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(split(from, middle), split(middle, to));
+            }
+        }
+
+        /**
+         * @param index the index to compare
+         * @return <code>true</code> if the elements at the index match
+         */
+        abstract boolean matches(int index);
+
+        /**
+         * @param from the first index of the new task
+         * @param to one past the last index of the new task
+         * @return a task for part of this range
+         */
+        abstract RangeTask split(int from, int to);
+    }
+
+    /**
+     * Compares elements of two lists
+     */
+    private static final class ListTask extends RangeTask
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<?> expected;
+        private final List<?> actual;
+
+        ListTask(List<?> expected, List<?> actual, int from, int to, AtomicInteger lowest)
+        {
+            super(from, to, lowest);
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        @Override
+        boolean matches(int index)
+        {
+            return isEqual(expected.get(index), actual.get(index));
+        }
+
+        @Override
+        RangeTask split(int from, int to)
+        {
+            return new ListTask(expected, actual, from, to, lowest);
+        }
+    }
+
+    /**
+     * Looks up entries of expected in the actual map
+     */
+    private static final class MapTask extends RangeTask
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] entries;
+        private final Map<?, ?> actual;
+
+        MapTask(Object[] entries, Map<?, ?> actual, int from, int to, AtomicInteger lowest)
+        {
+            super(from, to, lowest);
+            this.entries = entries;
+            this.actual = actual;
+        }
+
+        @Override
+        boolean matches(int index)
+        {
+            Entry<?, ?> e = (Entry<?, ?>) entries[index];
+            // workers look up keys at the same time, which is only safe when a lookup does not modify actual
+            Object value = actual.get(e.getKey());
+            // containsKey is only needed to tell a missing key from a null value
+            return isEqual(e.getValue(), value) && (value != null || actual.containsKey(e.getKey()));
+        }
+
+        @Override
+        RangeTask split(int from, int to)
+        {
+            return new MapTask(entries, actual, from, to, lowest);
+        }
+    }
+}
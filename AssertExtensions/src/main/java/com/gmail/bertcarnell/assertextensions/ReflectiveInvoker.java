@@ -0,0 +1,609 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import java.beans.Expression;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Invokes methods by name for the reflective <code>assertThrows</code> methods, and constructors for
+ * <code>assertConstuctorThrows</code>.
+ * <p>
+ * A method is resolved once for each combination of target class, method name and argument classes.  The result is
+ * cached as a <code>MethodHandle</code> that is invoked directly on later calls.  Resolution follows the rules of
+ * <code>java.beans.Statement</code>: public methods of the target class whose parameters accept the argument classes,
+ * where a primitive parameter accepts its wrapper class and a <code>null</code> argument matches any reference type.
+ * When the target is a <code>Class</code>, its static methods are searched.  Calls that cannot be resolved to exactly
+ * one method are passed to <code>java.beans.Expression</code>.
+ * </p>
+ * <p>
+ * Constructors are resolved by their exact parameter types and cached the same way.  A public constructor that the
+ * public lookup cannot reach, like one of a class that is not public, is called with
+ * <code>Constructor.newInstance</code> instead, which checks access from this package.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+final class ReflectiveInvoker
+{
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    /**
+     * The name used to cache constructors, which cannot clash with a method name
+     */
+    private static final String CONSTRUCTOR_NAME = "<init>";
+
+    /**
+     * Primitive types in the order of widening primitive conversions
+     */
+    private static final List<Class<?>> WIDENING_ORDER = Arrays.<Class<?>>asList(byte.class, short.class, char.class,
+            int.class, long.class, float.class, double.class);
+
+    /**
+     * Cached invokers for each target class.  A <code>ClassValue</code> stores the invokers with the target class, so
+     * the cache does not keep the target class from being unloaded.  It does keep the argument classes of each cached
+     * call, and the parameter types of each resolved method or constructor, reachable for as long as the target class
+     * is.  A target class from a long-lived class loader, like <code>Double</code>, therefore keeps argument classes
+     * from a shorter-lived loader from being unloaded.
+     */
+    private static final ClassValue<ConcurrentMap<Signature, Invoker>> INVOKERS = new ClassValue<ConcurrentMap<Signature, Invoker>>()
+    {
+        @Override
+        protected ConcurrentMap<Signature, Invoker> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Prevent instantiation of this class.
+     */
+    private ReflectiveInvoker() {}
+
+    /**
+     * Invoke a method on the target.  Exceptions thrown by the method are thrown unchanged.
+     *
+     * @param target the target object, or a <code>Class</code> to call one of its static methods
+     * @param methodName the name of the method
+     * @param arguments the arguments to the method
+     * @return the value returned by the method, or <code>null</code> for a <code>void</code> method
+     * @throws Throwable the exception thrown by the method, or <code>NoSuchMethodException</code> if the method
+     * cannot be found
+     */
+    static Object invoke(Object target, String methodName, Object... arguments) throws Throwable
+    {
+        Object[] args = arguments == null ? new Object[0] : arguments;
+        return findInvoker(target, methodName, args).invoke(target, args);
+    }
+
+    /**
+     * Find the cached invoker for a call, resolving it the first time the call is made
+     *
+     * @param target the target object, or a <code>Class</code> to call one of its static methods
+     * @param methodName the name of the method
+     * @param arguments the arguments to the method
+     * @return the invoker
+     */
+    static Invoker findInvoker(Object target, String methodName, Object[] arguments)
+    {
+        boolean classTarget = target instanceof Class;
+        Class<?> targetClass = classTarget ? (Class<?>) target : target.getClass();
+        Signature signature = new Signature(methodName, classTarget, argumentClasses(arguments));
+        ConcurrentMap<Signature, Invoker> invokers = INVOKERS.get(targetClass);
+        Invoker invoker = invokers.get(signature);
+        if (invoker == null)
+        {
+            invoker = resolve(targetClass, signature);
+            Invoker existing = invokers.putIfAbsent(signature, invoker);
+            if (existing != null)
+            {
+                invoker = existing;
+            }
+        }
+        return invoker;
+    }
+
+    /**
+     * Find the cached invoker for a constructor, resolving the exact constructor the first time it is used
+     *
+     * @param type the class to construct
+     * @param parameterTypes the exact parameter types of the constructor
+     * @return the invoker, which ignores its target
+     * @throws NoSuchMethodException if there is no public constructor with those parameter types
+     */
+    static ConstructorInvoker findConstructor(Class<?> type, Class<?>[] parameterTypes) throws NoSuchMethodException
+    {
+        ConstructorInvoker invoker = findCachedConstructor(type, parameterTypes);
+        return invoker != null ? invoker : cacheConstructor(type.getConstructor(parameterTypes));
+    }
+
+    /**
+     * Find the cached invoker for a constructor
+     *
+     * @param constructor the constructor
+     * @return the invoker, which ignores its target
+     */
+    static ConstructorInvoker findConstructor(Constructor<?> constructor)
+    {
+        ConstructorInvoker invoker = findCachedConstructor(constructor.getDeclaringClass(), constructor.getParameterTypes());
+        return invoker != null ? invoker : cacheConstructor(constructor);
+    }
+
+    /**
+     * @param type the class to construct
+     * @param parameterTypes the exact parameter types of the constructor
+     * @return the cached invoker, or <code>null</code> if the constructor has not been used yet
+     */
+    private static ConstructorInvoker findCachedConstructor(Class<?> type, Class<?>[] parameterTypes)
+    {
+        return (ConstructorInvoker) INVOKERS.get(type).get(new Signature(CONSTRUCTOR_NAME, false, parameterTypes));
+    }
+
+    /**
+     * @param constructor the constructor
+     * @return the invoker that was cached for the constructor
+     */
+    private static ConstructorInvoker cacheConstructor(Constructor<?> constructor)
+    {
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        ConstructorInvoker invoker;
+        try
+        {
+            MethodHandle handle = LOOKUP.unreflectConstructor(constructor)
+                    .asType(MethodType.genericMethodType(parameterTypes.length))
+                    .asSpreader(Object[].class, parameterTypes.length);
+            invoker = new HandleConstructorInvoker(parameterTypes, MethodHandles.dropArguments(handle, 0, Object.class));
+        }
+        catch (IllegalAccessException e)
+        {
+            invoker = new NewInstanceInvoker(constructor);
+        }
+        Invoker existing = INVOKERS.get(constructor.getDeclaringClass())
+                .putIfAbsent(new Signature(CONSTRUCTOR_NAME, false, parameterTypes), invoker);
+        return existing != null ? (ConstructorInvoker) existing : invoker;
+    }
+
+    /**
+     * @param arguments the arguments to a method
+     * @return the class of each argument, with <code>null</code> for a <code>null</code> argument
+     */
+    private static Class<?>[] argumentClasses(Object[] arguments)
+    {
+        Class<?>[] classes = new Class<?>[arguments.length];
+        for (int i = 0; i < arguments.length; i++)
+        {
+            classes[i] = arguments[i] == null ? null : arguments[i].getClass();
+        }
+        return classes;
+    }
+
+    /**
+     * Resolve a call to the most specific method that accepts the argument classes
+     *
+     * @param targetClass the class that declares or inherits the method
+     * @param signature the method name and argument classes
+     * @return the invoker
+     */
+    private static Invoker resolve(Class<?> targetClass, Signature signature)
+    {
+        List<Method> candidates = new ArrayList<>();
+        for (Method m : targetClass.getMethods())
+        {
+            if (m.getName().equals(signature.methodName) && !m.isBridge()
+                    && (!signature.classTarget || Modifier.isStatic(m.getModifiers()))
+                    && isApplicable(m.getParameterTypes(), signature.argumentClasses))
+            {
+                candidates.add(m);
+            }
+        }
+        Method method = mostSpecific(candidates);
+        if (method == null)
+        {
+            return new StatementInvoker(signature.methodName);
+        }
+        try
+        {
+            return new HandleInvoker(createHandle(method));
+        }
+        catch (IllegalAccessException e)
+        {
+            return new StatementInvoker(signature.methodName);
+        }
+    }
+
+    /**
+     * @param parameterTypes the parameter types of a method
+     * @param argumentClasses the classes of the arguments, with <code>null</code> for a <code>null</code> argument
+     * @return <code>true</code> if each parameter accepts the corresponding argument
+     */
+    private static boolean isApplicable(Class<?>[] parameterTypes, Class<?>[] argumentClasses)
+    {
+        if (parameterTypes.length != argumentClasses.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < parameterTypes.length; i++)
+        {
+            if (argumentClasses[i] == null)
+            {
+                if (parameterTypes[i].isPrimitive())
+                {
+                    return false;
+                }
+            }
+            else if (!wrap(parameterTypes[i]).isAssignableFrom(argumentClasses[i]))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Choose the method whose parameters are assignable to the parameters of every other candidate
+     *
+     * @param candidates the applicable methods
+     * @return the most specific method, or <code>null</code> if there are no candidates or the choice is ambiguous
+     */
+    private static Method mostSpecific(List<Method> candidates)
+    {
+        Method best = null;
+        for (Method m : candidates)
+        {
+            if (best == null || isMoreSpecific(m.getParameterTypes(), best.getParameterTypes()))
+            {
+                best = m;
+            }
+        }
+        for (Method m : candidates)
+        {
+            if (m != best && !isMoreSpecific(best.getParameterTypes(), m.getParameterTypes()))
+            {
+                return null;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param a the parameters of one method
+     * @param b the parameters of another method with the same number of parameters
+     * @return <code>true</code> if every parameter of <code>a</code> is assignable to the parameter of <code>b</code>,
+     * comparing primitive parameters by their wrapper classes
+     */
+    private static boolean isMoreSpecific(Class<?>[] a, Class<?>[] b)
+    {
+        for (int i = 0; i < a.length; i++)
+        {
+            if (!wrap(b[i]).isAssignableFrom(wrap(a[i])))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create a handle of type <code>(Object, Object[])Object</code> that calls the method on the first argument with
+     * the elements of the array as the arguments
+     *
+     * @param method the method
+     * @return the handle
+     * @throws IllegalAccessException if the method cannot be accessed
+     */
+    private static MethodHandle createHandle(Method method) throws IllegalAccessException
+    {
+        Method accessible = findPublicDeclaration(method);
+        if (accessible == null)
+        {
+            throw new IllegalAccessException(method.toString());
+        }
+        int parameterCount = method.getParameterTypes().length;
+        MethodHandle handle = LOOKUP.unreflect(accessible);
+        if (Modifier.isStatic(accessible.getModifiers()))
+        {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(MethodType.genericMethodType(parameterCount + 1))
+                .asSpreader(Object[].class, parameterCount);
+    }
+
+    /**
+     * A public method may be declared in a class that is not public, like the classes returned by
+     * <code>Collections.unmodifiableList</code>.  Find the same method in a public superclass or interface.
+     *
+     * @param method the method
+     * @return the method declared by a public type, or <code>null</code> if there is none
+     */
+    private static Method findPublicDeclaration(Method method)
+    {
+        if (Modifier.isPublic(method.getDeclaringClass().getModifiers()))
+        {
+            return method;
+        }
+        List<Class<?>> types = new ArrayList<>();
+        types.add(method.getDeclaringClass());
+        for (int i = 0; i < types.size(); i++)
+        {
+            Class<?> type = types.get(i);
+            if (Modifier.isPublic(type.getModifiers()))
+            {
+                try
+                {
+                    return type.getMethod(method.getName(), method.getParameterTypes());
+                }
+                catch (NoSuchMethodException e)
+                {
+                    // keep searching the supertypes
+                }
+            }
+            if (type.getSuperclass() != null)
+            {
+                types.add(type.getSuperclass());
+            }
+            types.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        return null;
+    }
+
+    /**
+     * Uses the same rules as <code>Constructor.newInstance</code>: a primitive parameter accepts its wrapper class or
+     * a wrapper of a primitive that widens to it
+     *
+     * @param parameterType the type of the parameter
+     * @param argument the argument
+     * @return <code>true</code> if the argument can be passed to the parameter
+     */
+    private static boolean isConvertible(Class<?> parameterType, Object argument)
+    {
+        if (!parameterType.isPrimitive())
+        {
+            return argument == null || parameterType.isInstance(argument);
+        }
+        if (argument == null)
+        {
+            return false;
+        }
+        Class<?> from = MethodType.methodType(argument.getClass()).unwrap().returnType();
+        if (from == parameterType)
+        {
+            return true;
+        }
+        int fromRank = WIDENING_ORDER.indexOf(from);
+        int toRank = WIDENING_ORDER.indexOf(parameterType);
+        if (fromRank < 0 || toRank < 0)
+        {
+            return false;
+        }
+        // char only widens to int and wider, and nothing widens to char
+        if (from == char.class)
+        {
+            return toRank >= WIDENING_ORDER.indexOf(int.class);
+        }
+        return parameterType != char.class && fromRank < toRank;
+    }
+
+    /**
+     * @param type a class
+     * @return the wrapper class of a primitive type, or the type itself
+     */
+    private static Class<?> wrap(Class<?> type)
+    {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * A resolved call
+     */
+    abstract static class Invoker
+    {
+        /**
+         * @param target the target object
+         * @param arguments the arguments to the method
+         * @return the value returned by the method
+         * @throws Throwable the exception thrown by the method
+         */
+        abstract Object invoke(Object target, Object[] arguments) throws Throwable;
+    }
+
+    /**
+     * Invokes a cached <code>MethodHandle</code>
+     */
+    private static final class HandleInvoker extends Invoker
+    {
+        private final MethodHandle handle;
+
+        HandleInvoker(MethodHandle handle)
+        {
+            this.handle = handle;
+        }
+
+        @Override
+        Object invoke(Object target, Object[] arguments) throws Throwable
+        {
+            return (Object) handle.invokeExact(target, arguments);
+        }
+    }
+
+    /**
+     * Invokes a cached constructor
+     */
+    abstract static class ConstructorInvoker extends Invoker
+    {
+        private final Class<?>[] parameterTypes;
+
+        ConstructorInvoker(Class<?>[] parameterTypes)
+        {
+            this.parameterTypes = parameterTypes;
+        }
+
+        /**
+         * Check the arguments before the constructor is invoked so that a <code>ClassCastException</code> from an
+         * argument is not confused with one thrown by the constructor
+         *
+         * @param arguments the arguments to the constructor
+         * @return a description of the problem, or <code>null</code> if the arguments can be passed to the constructor
+         */
+        String checkArguments(Object[] arguments)
+        {
+            if (arguments.length != parameterTypes.length)
+            {
+                return "wrong number of arguments";
+            }
+            for (int i = 0; i < arguments.length; i++)
+            {
+                if (!isConvertible(parameterTypes[i], arguments[i]))
+                {
+                    return "argument type mismatch";
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Invokes a cached constructor <code>MethodHandle</code>
+     */
+    private static final class HandleConstructorInvoker extends ConstructorInvoker
+    {
+        private final MethodHandle handle;
+
+        HandleConstructorInvoker(Class<?>[] parameterTypes, MethodHandle handle)
+        {
+            super(parameterTypes);
+            this.handle = handle;
+        }
+
+        @Override
+        Object invoke(Object target, Object[] arguments) throws Throwable
+        {
+            return (Object) handle.invokeExact(target, arguments);
+        }
+    }
+
+    /**
+     * Invokes a constructor that the public lookup cannot reach with <code>Constructor.newInstance</code>
+     */
+    private static final class NewInstanceInvoker extends ConstructorInvoker
+    {
+        private final Constructor<?> constructor;
+
+        NewInstanceInvoker(Constructor<?> constructor)
+        {
+            super(constructor.getParameterTypes());
+            this.constructor = constructor;
+        }
+
+        @Override
+        Object invoke(Object target, Object[] arguments) throws Throwable
+        {
+            try
+            {
+                return constructor.newInstance(arguments);
+            }
+            catch (InvocationTargetException e)
+            {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Passes the call to <code>java.beans.Expression</code>, which reports missing methods with a
+     * <code>NoSuchMethodException</code>
+     */
+    private static final class StatementInvoker extends Invoker
+    {
+        private final String methodName;
+
+        StatementInvoker(String methodName)
+        {
+            this.methodName = methodName;
+        }
+
+        @Override
+        Object invoke(Object target, Object[] arguments) throws Throwable
+        {
+            try
+            {
+                return new Expression(target, methodName, arguments).getValue();
+            }
+            catch (InvocationTargetException e)
+            {
+                // Expression wraps errors thrown by the method
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * The cache key for a call on a target class
+     */
+    private static final class Signature
+    {
+        final String methodName;
+        final boolean classTarget;
+        final Class<?>[] argumentClasses;
+        private final int hash;
+
+        Signature(String methodName, boolean classTarget, Class<?>[] argumentClasses)
+        {
+            this.methodName = methodName;
+            this.classTarget = classTarget;
+            this.argumentClasses = argumentClasses;
+            this.hash = 31 * (31 * methodName.hashCode() + (classTarget ? 1 : 0)) + Arrays.hashCode(argumentClasses);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof Signature))
+            {
+                return false;
+            }
+            Signature other = (Signature) obj;
+            return classTarget == other.classTarget && methodName.equals(other.methodName)
+                    && Arrays.equals(argumentClasses, other.argumentClasses);
+        }
+    }
+}
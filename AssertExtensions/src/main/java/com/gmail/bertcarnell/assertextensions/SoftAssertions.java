@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+/**
+ * Collects the failures of many asserts and reports them together, so that one failure does not stop a test before
+ * the rest of its checks have run.
+ * <p>
+ * Each assert is passed to {@link #check(ExceptionRunnable)}, which records an <code>AssertionError</code> instead of
+ * throwing it.  Other exceptions are thrown as usual.  {@link #assertAll()} then throws one <code>AssertionError</code>
+ * that lists the failures, with each kept failure attached as a suppressed exception.  The failures are kept in a
+ * buffer that is allocated once.  When it is full, later failures are only counted.
+ * </p>
+ * <pre>
+ * SoftAssertions softly = new SoftAssertions();
+ * for (int i = 0; i &lt; expected.length; i++) {
+ *     final int row = i;
+ *     softly.check(new ExceptionRunnable() {
+ *         public void run() {
+ *             assertEqualsLRE(expected[row], actual[row], 7);
+ *         }
+ *     });
+ * }
+ * softly.assertAll();
+ * </pre>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public final class SoftAssertions
+{
+    /**
+     * The number of failures kept by default
+     */
+    public static final int DEFAULT_MAX_FAILURES = 100;
+
+    private final AssertionError[] failures;
+    private int count;
+
+    /**
+     * Collect up to {@link #DEFAULT_MAX_FAILURES} failures
+     */
+    public SoftAssertions()
+    {
+        this(DEFAULT_MAX_FAILURES);
+    }
+
+    /**
+     * @param maxFailures the number of failures to keep.  Failures after these are counted but not kept.
+     */
+    public SoftAssertions(int maxFailures)
+    {
+        if (maxFailures < 0)
+        {
+            throw new IllegalArgumentException("maxFailures must not be negative: " + maxFailures);
+        }
+        this.failures = new AssertionError[maxFailures];
+    }
+
+    /**
+     * Run an assert and record its failure.  Exceptions other than <code>AssertionError</code> are thrown, with
+     * checked exceptions wrapped in a <code>RuntimeException</code>.
+     *
+     * @param assertion the assert to run
+     * @return <code>true</code> if the assert passed
+     */
+    public boolean check(ExceptionRunnable assertion)
+    {
+        try
+        {
+            assertion.run();
+            return true;
+        }
+        catch (AssertionError e)
+        {
+            if (count < failures.length)
+            {
+                failures[count] = e;
+            }
+            count++;
+            return false;
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable th)
+        {
+            throw new RuntimeException(th);
+        }
+    }
+
+    /**
+     * @return the number of failures, including those that were not kept
+     */
+    public int getFailureCount()
+    {
+        return count;
+    }
+
+    /**
+     * Throw one <code>AssertionError</code> for all of the failures, if there were any
+     */
+    public void assertAll()
+    {
+        if (count == 0)
+        {
+            return;
+        }
+        int kept = Math.min(count, failures.length);
+        StringBuilder sb = new StringBuilder();
+        sb.append(count).append(count == 1 ? " assertion failed" : " assertions failed");
+        for (int i = 0; i < kept; i++)
+        {
+            sb.append(String.format("%n%d) %s", i + 1, failures[i].getMessage()));
+        }
+        if (count > kept)
+        {
+            sb.append(String.format("%nand %d more", count - kept));
+        }
+        AssertionError error = new AssertionError(sb.toString());
+        for (int i = 0; i < kept; i++)
+        {
+            error.addSuppressed(failures[i]);
+        }
+        throw error;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+/**
+ * The type, message, and causes of a caught <code>Throwable</code>, without its stack trace.  Returned by
+ * {@link ExceptionAssertExtensions#assertThrowsSummary(Class, ExceptionRunnable)} so that the
+ * <code>Throwable</code> and its stack trace can be collected as soon as the assert returns.
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public final class ThrownSummary
+{
+    /**
+     * the most causes that are summarized, which also stops a cycle of causes
+     */
+    static final int MAX_CAUSES = 16;
+
+    private final Class<? extends Throwable> type;
+    private final String message;
+    private final ThrownSummary cause;
+
+    private ThrownSummary(Class<? extends Throwable> type, String message, ThrownSummary cause)
+    {
+        this.type = type;
+        this.message = message;
+        this.cause = cause;
+    }
+
+    /**
+     * @param th the <code>Throwable</code> to summarize
+     * @return the summary of the <code>Throwable</code> and at most {@value #MAX_CAUSES} of its causes
+     */
+    public static ThrownSummary of(Throwable th)
+    {
+        Throwable[] chain = new Throwable[MAX_CAUSES + 1];
+        int n = 0;
+        for (Throwable t = th; t != null && n < chain.length; t = t.getCause())
+        {
+            chain[n++] = t;
+        }
+        // build from the innermost cause outward so that each summary is immutable
+        ThrownSummary summary = null;
+        for (int i = n - 1; i >= 0; i--)
+        {
+            summary = new ThrownSummary(chain[i].getClass(), chain[i].getMessage(), summary);
+        }
+        return summary;
+    }
+
+    /**
+     * @return the class of the <code>Throwable</code>
+     */
+    public Class<? extends Throwable> getType()
+    {
+        return type;
+    }
+
+    /**
+     * @return the message of the <code>Throwable</code>, which may be <code>null</code>
+     */
+    public String getMessage()
+    {
+        return message;
+    }
+
+    /**
+     * @return the summary of the cause, or <code>null</code> if there is no cause
+     */
+    public ThrownSummary getCause()
+    {
+        return cause;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (!(obj instanceof ThrownSummary))
+        {
+            return false;
+        }
+        ThrownSummary other = (ThrownSummary) obj;
+        return type == other.type
+                && (message == null ? other.message == null : message.equals(other.message))
+                && (cause == null ? other.cause == null : cause.equals(other.cause));
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = type.hashCode();
+        result = 31 * result + (message == null ? 0 : message.hashCode());
+        return 31 * result + (cause == null ? 0 : cause.hashCode());
+    }
+
+    /**
+     * @return the type and message of the <code>Throwable</code> and its causes, in the form of
+     * <code>Throwable.toString</code>
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (ThrownSummary s = this; s != null; s = s.cause)
+        {
+            if (s != this)
+            {
+                sb.append("; caused by ");
+            }
+            sb.append(s.type.getName());
+            if (s.message != null)
+            {
+                sb.append(": ").append(s.message);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -28,11 +28,20 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import static com.gmail.bertcarnell.assertextensions.AssertExtensions.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -153,6 +162,48 @@ public class AssertExtensionsTest {
         });
     }
 
+    /**
+     * Test of assertListEquals method with lists that do not implement <code>RandomAccess</code>, of class AssertExtensions.
+     * @throws java.lang.Throwable
+     */
+    @Test
+    public void testAssertListEquals_LinkedList() throws Throwable {
+        System.out.println("assertListEquals LinkedList");
+        expectedList = new LinkedList<>();
+        actualList = new LinkedList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            expectedList.add(Double.valueOf(i));
+            actualList.add(Double.valueOf(i));
+        }
+        assertListEquals(expectedList, actualList);
+        // one random access list and one sequential list
+        assertListEquals(new ArrayList<>(expectedList), actualList);
+        assertListEquals(expectedList, new ArrayList<>(actualList));
+
+        actualList.set(999, Double.valueOf(-1.0));
+        testFailingAssert(new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertListEquals(expectedList, actualList);
+            }
+        });
+        testFailingAssert(new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertListEquals(new ArrayList<>(expectedList), actualList);
+            }
+        });
+
+        actualList.remove(999);
+        testFailingAssert(new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertListEquals(expectedList, actualList);
+            }
+        });
+    }
+
     /**
      * Test of assertSetEquals method, of class AssertExtensions.
      */
@@ -240,4 +291,342 @@ public class AssertExtensionsTest {
             }
         });
     }
+
+    /**
+     * Test of assertSetEquals and assertMapEquals methods with sorted inputs, of class AssertExtensions.
+     */
+    @Test
+    public void testAssertSortedEquals() throws Throwable {
+        System.out.println("assertSetEquals sorted");
+        TreeSet<String> expectedSorted = new TreeSet<>(Arrays.asList("a", "b", "c", "d"));
+        TreeSet<String> actualSorted = new TreeSet<>(Arrays.asList("a", "b", "c", "d"));
+        assertSetEquals(expectedSorted, actualSorted);
+        // different comparators fall back to looking up each element
+        TreeSet<String> reversed = new TreeSet<>(Collections.reverseOrder());
+        reversed.addAll(actualSorted);
+        assertSetEquals(expectedSorted, reversed);
+        actualSorted.remove("b");
+        actualSorted.add("e");
+        try
+        {
+            assertSetEquals(expectedSorted, actualSorted);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("actual does not contain all of expected; first difference in order expected:<b> but was:<c>",
+                    e.getMessage());
+        }
+        // elements are compared with the comparator, as containsAll does for a TreeSet
+        TreeSet<String> expectedCase = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        expectedCase.addAll(Arrays.asList("a", "B"));
+        TreeSet<String> actualCase = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        actualCase.addAll(Arrays.asList("A", "b"));
+        assertSetEquals(expectedCase, actualCase);
+
+        System.out.println("assertMapEquals sorted");
+        TreeMap<String, Integer> expectedSortedMap = new TreeMap<>();
+        TreeMap<String, Integer> actualSortedMap = new TreeMap<>();
+        for (String key : expectedSorted)
+        {
+            expectedSortedMap.put(key, key.hashCode());
+            actualSortedMap.put(key, key.hashCode());
+        }
+        assertMapEquals(expectedSortedMap, actualSortedMap);
+        actualSortedMap.put("c", null);
+        try
+        {
+            assertMapEquals(expectedSortedMap, actualSortedMap);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("maps do not have the same value for key c expected:<99> but was:<null>", e.getMessage());
+        }
+        actualSortedMap.remove("a");
+        actualSortedMap.put("0", null);
+        try
+        {
+            assertMapEquals(expectedSortedMap, actualSortedMap);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("maps do not contain the same keys; first difference in order expected:<a> but was:<0>",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Test of assertListEqualsParallel method, of class AssertExtensions.
+     */
+    @Test
+    public void testAssertListEqualsParallel() throws Throwable {
+        System.out.println("assertListEqualsParallel");
+        final int size = 200000;
+        final List<Integer> expected = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            expected.add(Integer.valueOf(i));
+        }
+        final List<Integer> actual = new ArrayList<>(expected);
+        assertListEqualsParallel(expected, actual);
+        assertListEqualsParallel(expected, new LinkedList<>(actual));
+        assertListEqualsParallel(Arrays.asList("a", "b"), Arrays.asList("a", "b"));
+        assertListEqualsParallel(null, null);
+        testFailingAssert(new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertListEqualsParallel(expected, actual.subList(1, size));
+            }
+        });
+        // the lowest index is reported no matter which worker finds its difference first
+        actual.set(150000, Integer.valueOf(-1));
+        actual.set(70000, null);
+        actual.set(190000, Integer.valueOf(-1));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            for (int i = 0; i < 10; i++)
+            {
+                try
+                {
+                    assertListEqualsParallel(expected, new LinkedList<>(actual), pool);
+                    throw new NoSuchMethodException("Did not throw");
+                }
+                catch (AssertionError e)
+                {
+                    assertTrue(e.getMessage(), e.getMessage().startsWith("At least one element of the lists are different at index 70000"));
+                }
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test of assertMapEqualsParallel method, of class AssertExtensions.
+     */
+    @Test
+    public void testAssertMapEqualsParallel() throws Throwable {
+        System.out.println("assertMapEqualsParallel");
+        final int size = 100000;
+        final Map<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < size; i++)
+        {
+            expected.put(Integer.valueOf(i), i % 3 == 0 ? null : Integer.valueOf(i));
+        }
+        final Map<Integer, Integer> actual = new HashMap<>(expected);
+        assertMapEqualsParallel(expected, actual);
+        assertMapEqualsParallel(null, null);
+        // a null value is not the same as a missing key
+        actual.remove(Integer.valueOf(99999));
+        actual.put(Integer.valueOf(-1), null);
+        try
+        {
+            assertMapEqualsParallel(expected, actual);
+            throw new NoSuchMethodException("Did not throw");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("maps do not contain the same keys: 99999"));
+        }
+        actual.put(Integer.valueOf(99999), null);
+        actual.remove(Integer.valueOf(-1));
+        actual.put(Integer.valueOf(60000), Integer.valueOf(0));
+        actual.put(Integer.valueOf(30001), Integer.valueOf(0));
+        try
+        {
+            assertMapEqualsParallel(expected, actual);
+            throw new NoSuchMethodException("Did not throw");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("maps do not have the same value for key 30001"));
+        }
+    }
+
+    /**
+     * Test of assertMapEquals method with a full difference report, of class AssertExtensions.
+     */
+    @Test
+    public void testAssertMapEquals_Differences() throws Throwable {
+        System.out.println("assertMapEquals with differences");
+        final Map<String, Integer> expected = new TreeMap<>();
+        final Map<String, Integer> actual = new TreeMap<>();
+        for (int i = 0; i < 5; i++)
+        {
+            expected.put("k" + i, Integer.valueOf(i));
+            actual.put("k" + i, Integer.valueOf(i));
+        }
+        expected.put("n", null);
+        actual.put("n", null);
+        assertMapEquals(expected, actual, 3);
+        assertMapEquals(null, null, 3);
+        testFailingAssert(new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertMapEquals(expected, null, 3);
+            }
+        });
+        // a null value is not the same as a missing key
+        actual.remove("n");
+        actual.put("x", null);
+        actual.put("k1", Integer.valueOf(10));
+        actual.put("k2", null);
+        try
+        {
+            assertMapEquals(expected, actual, 3);
+            throw new NoSuchMethodException("Did not throw");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Maps are not equal; 1 missing keys: [n]; 1 extra keys: [x]; 2 changed values: "
+                    + "[k1 expected:<1> but was:<10>, k2 expected:<2> but was:<null>]", e.getMessage());
+        }
+        // every difference is counted, but only the first are listed
+        for (int i = 0; i < 5; i++)
+        {
+            actual.put("k" + i, Integer.valueOf(-i - 1));
+        }
+        try
+        {
+            assertMapEquals(expected, actual, 2);
+            throw new NoSuchMethodException("Did not throw");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Maps are not equal; 1 missing keys: [n]; 1 extra keys: [x]; 5 changed values: "
+                    + "[k0 expected:<0> but was:<-1>, k1 expected:<1> but was:<-2>] and 3 more", e.getMessage());
+        }
+    }
+
+    /**
+     * Test of assertPrimitiveArrayEquals method, of class AssertExtensions.
+     * @throws java.lang.Throwable
+     */
+    @Test
+    public void testAssertPrimitiveArrayEquals() throws Throwable {
+        System.out.println("assertPrimitiveArrayEquals");
+        final int[] expectedInt = new int[] {1, 2, 3, 4, 5, 6, 7, 8};
+        final int[] actualInt = new int[] {1, 2, 3, 4, 5, 6, 7, 8};
+        assertPrimitiveArrayEquals(expectedInt, actualInt);
+        assertPrimitiveArrayEquals((int[]) null, (int[]) null);
+        assertPrimitiveArrayEquals(new int[0], new int[0]);
+        testFailingAssert(new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertPrimitiveArrayEquals(expectedInt, null);
+            }
+        });
+        testFailingAssert(new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertPrimitiveArrayEquals(expectedInt, new int[] {1, 2, 3});
+            }
+        });
+        actualInt[4] = 50;
+        try
+        {
+            assertPrimitiveArrayEquals(expectedInt, actualInt);
+            fail("Did not throw when should have throw an exception");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Arrays first differ at index 4; expected elements [2..6] [3, 4, 5, 6, 7] but were [3, 4, 50, 6, 7]",
+                    e.getMessage());
+        }
+
+        final long[] expectedLong = new long[] {Long.MAX_VALUE, 2L, 3L};
+        final long[] actualLong = new long[] {Long.MAX_VALUE, 2L, 3L};
+        assertPrimitiveArrayEquals(expectedLong, actualLong);
+        actualLong[0] = Long.MIN_VALUE;
+        try
+        {
+            assertPrimitiveArrayEquals(expectedLong, actualLong);
+            fail("Did not throw when should have throw an exception");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Arrays first differ at index 0; expected elements [0..2] [9223372036854775807, 2, 3] but were [-9223372036854775808, 2, 3]",
+                    e.getMessage());
+        }
+
+        final double[] expectedDouble = new double[] {1.0, Double.NaN, 0.0, Double.POSITIVE_INFINITY};
+        final double[] actualDouble = new double[] {1.0, Double.NaN, 0.0, Double.POSITIVE_INFINITY};
+        assertPrimitiveArrayEquals(expectedDouble, actualDouble);
+        actualDouble[2] = -0.0;
+        try
+        {
+            assertPrimitiveArrayEquals(expectedDouble, actualDouble);
+            fail("Did not throw when should have throw an exception");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Arrays first differ at index 2; expected elements [0..3] [1.0, NaN, 0.0, Infinity] but were [1.0, NaN, -0.0, Infinity]",
+                    e.getMessage());
+        }
+        actualDouble[2] = 0.0;
+        actualDouble[3] = 1.0;
+        testFailingAssert(new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertPrimitiveArrayEquals(expectedDouble, actualDouble);
+            }
+        });
+    }
+
+    /**
+     * Test of assertSameElements method, of class AssertExtensions.
+     * @throws java.lang.Throwable
+     */
+    @Test
+    public void testAssertSameElements() throws Throwable {
+        System.out.println("assertSameElements");
+        final List<String> expected = Arrays.asList("a", "b", "b", "c");
+        assertSameElements(expected, Arrays.asList("b", "c", "a", "b"));
+        assertSameElements(new HashSet<>(expected), new LinkedHashSet<>(Arrays.asList("c", "b", "a")));
+        assertSameElements(Arrays.asList("a", null), Arrays.asList(null, "a"));
+        assertSameElements(null, null);
+        assertSameElements(new ArrayList<String>(), new HashSet<String>());
+        testFailingAssert(new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertSameElements(expected, null);
+            }
+        });
+        testFailingAssert(new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertSameElements(null, expected);
+            }
+        });
+        try
+        {
+            assertSameElements(expected, Arrays.asList("a", "c", "d", "d", "e"));
+            throw new NoSuchMethodException("Did not throw");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Collections do not contain the same elements; missing from actual: [b (x2)]; surplus in actual: [d (x2), e]",
+                    e.getMessage());
+        }
+        // the number of differences in the message is limited
+        final List<Integer> many = new ArrayList<>();
+        for (int i = 0; i < 15; i++)
+        {
+            many.add(Integer.valueOf(i));
+        }
+        try
+        {
+            assertSameElements(many, new ArrayList<Integer>());
+            throw new NoSuchMethodException("Did not throw");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().endsWith(" and 5 more; surplus in actual: []"));
+        }
+    }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import static com.gmail.bertcarnell.assertextensions.AssertExtensions.assertListEquals;
+import static com.gmail.bertcarnell.assertextensions.AssertExtensions.assertSetEquals;
+import static com.gmail.bertcarnell.assertextensions.ExceptionAssertExtensions.assertThrows;
+import static com.gmail.bertcarnell.assertextensions.NumericAssertExtensions.assertEqualsLRE;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public class AssertionMetricsTest {
+
+    public AssertionMetricsTest() {
+    }
+
+    @Before
+    public void setUp() {
+        AssertionMetrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        AssertionMetrics.setEnabled(false);
+        AssertionMetrics.setTimingEnabled(false);
+        AssertionMetrics.reset();
+    }
+
+    private static void callAsserts()
+    {
+        assertListEquals(Arrays.asList(1, 2), Arrays.asList(1, 2));
+        try
+        {
+            assertListEquals(Arrays.asList(1, 2), Arrays.asList(1, 3));
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("At least one element of the lists are different expected:<2> but was:<3>", e.getMessage());
+        }
+        // the String overload delegates to the counted overload, so it is only counted once
+        assertEqualsLRE("abc", 1.0, 1.0, 7);
+        assertThrows(NumberFormatException.class, Double.class, "parseDouble", "a");
+    }
+
+    /**
+     * Test of snapshot method, of class AssertionMetrics.
+     */
+    @Test
+    public void testSnapshot() {
+        System.out.println("snapshot");
+        // nothing is counted while metrics are disabled
+        callAsserts();
+        assertEquals(0L, AssertionMetrics.snapshot().get("assertListEquals").getCalls());
+        AssertionMetrics.setEnabled(true);
+        callAsserts();
+        Map<String, AssertionMetrics.Snapshot> snapshot = AssertionMetrics.snapshot();
+        assertEquals(2L, snapshot.get("assertListEquals").getCalls());
+        assertEquals(1L, snapshot.get("assertListEquals").getFailures());
+        assertEquals(1L, snapshot.get("assertEqualsLRE").getCalls());
+        assertEquals(1L, snapshot.get("assertThrows").getCalls());
+        assertEquals(0L, snapshot.get("assertThrows").getFailures());
+        assertEquals(0L, snapshot.get("assertSetEquals").getCalls());
+        // not timed
+        assertEquals(0L, snapshot.get("assertListEquals").getTotalNanos());
+        AssertionMetrics.reset();
+        assertEquals(0L, AssertionMetrics.snapshot().get("assertListEquals").getCalls());
+    }
+
+    /**
+     * Test that an assert that throws something other than an <code>AssertionError</code> is counted as failed.
+     */
+    @Test
+    public void testOtherThrowable() {
+        System.out.println("other throwable");
+        AssertionMetrics.setEnabled(true);
+        try
+        {
+            assertSetEquals(new TreeSet<Object>(Arrays.<Object>asList(1)), new TreeSet<Object>(Arrays.<Object>asList("a")));
+            fail("Not thrown");
+        }
+        catch (ClassCastException e)
+        {
+            // the sets cannot be compared
+        }
+        assertEquals(1L, AssertionMetrics.snapshot().get("assertSetEquals").getCalls());
+        assertEquals(1L, AssertionMetrics.snapshot().get("assertSetEquals").getFailures());
+    }
+
+    /**
+     * Test of timing, of class AssertionMetrics.
+     */
+    @Test
+    public void testTiming() {
+        System.out.println("timing");
+        AssertionMetrics.setEnabled(true);
+        AssertionMetrics.setTimingEnabled(true);
+        callAsserts();
+        AssertionMetrics.Snapshot snapshot = AssertionMetrics.snapshot().get("assertListEquals");
+        assertTrue(snapshot.getTotalNanos() > 0);
+        long timed = 0;
+        for (long count : snapshot.getHistogram())
+        {
+            timed += count;
+        }
+        assertEquals(2L, timed);
+    }
+
+    /**
+     * Test of registerMBean method, of class AssertionMetrics.
+     * @throws Exception
+     */
+    @Test
+    public void testRegisterMBean() throws Exception {
+        System.out.println("registerMBean");
+        ObjectName name = AssertionMetrics.registerMBean();
+        assertEquals(name, AssertionMetrics.registerMBean());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(Boolean.FALSE, server.getAttribute(name, "Enabled"));
+        server.setAttribute(name, new javax.management.Attribute("Enabled", Boolean.TRUE));
+        assertTrue(AssertionMetrics.isEnabled());
+        callAsserts();
+        TabularData calls = (TabularData) server.getAttribute(name, "Calls");
+        CompositeData row = calls.get(new Object[] {"assertListEquals"});
+        assertEquals(Long.valueOf(2L), row.get("value"));
+    }
+
+    /**
+     * Test of addListener method, of class AssertionMetrics.
+     */
+    @Test
+    public void testAddListener() {
+        System.out.println("addListener");
+        final List<String> calls = new ArrayList<>();
+        AssertionListener listener = new AssertionListener() {
+            @Override
+            public void assertionStarted(String methodName) {
+                calls.add(methodName);
+            }
+
+            @Override
+            public void assertionCompleted(String methodName, long size, long durationNanos, boolean failed) {
+                assertTrue(durationNanos >= 0);
+                calls.add(methodName + " " + size + " " + failed);
+            }
+        };
+        AssertionMetrics.addListener(listener);
+        try
+        {
+            List<String> expected = Arrays.asList("assertListEquals", "assertListEquals 2 false", "assertListEquals",
+                    "assertListEquals 2 true", "assertEqualsLRE", "assertEqualsLRE 1 false", "assertThrows",
+                    "assertThrows -1 false");
+            // listeners do not depend on metrics being enabled
+            callAsserts();
+            assertEquals(expected, calls);
+            assertEquals(0L, AssertionMetrics.snapshot().get("assertListEquals").getCalls());
+            calls.clear();
+            AssertionMetrics.setEnabled(true);
+            callAsserts();
+            assertEquals(expected, calls);
+            // timed only for the listener
+            assertEquals(0L, AssertionMetrics.snapshot().get("assertListEquals").getTotalNanos());
+        }
+        finally
+        {
+            AssertionMetrics.removeListener(listener);
+        }
+        calls.clear();
+        callAsserts();
+        assertTrue(calls.isEmpty());
+    }
+}
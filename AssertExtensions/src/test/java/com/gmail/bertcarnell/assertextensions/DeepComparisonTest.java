@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public class DeepComparisonTest {
+
+    public DeepComparisonTest() {
+    }
+
+    /**
+     * Test of appendToken method, of class DeepComparison.
+     */
+    @Test
+    public void testAppendToken() {
+        System.out.println("appendToken");
+        StringBuilder path = new StringBuilder();
+        DeepComparison.appendToken(path, "a/b");
+        DeepComparison.appendToken(path, "m~n");
+        DeepComparison.appendToken(path, "~1");
+        DeepComparison.appendToken(path, "");
+        assertEquals("/a~1b/m~0n/~01/", path.toString());
+    }
+
+    /**
+     * Test of firstMismatch method, of class DeepComparison.
+     */
+    @Test
+    public void testFirstMismatch() {
+        System.out.println("firstMismatch");
+        assertNull(DeepComparison.firstMismatch(Arrays.asList(1, 2L, 3.0), Arrays.asList(1L, 2, 3.0f), 7));
+        assertNull(DeepComparison.firstMismatch(Collections.singletonMap("k", null), Collections.singletonMap("k", null), 7));
+        DeepComparison.Mismatch mismatch = DeepComparison.firstMismatch(Collections.singletonMap("k", null),
+                Collections.singletonMap("j", null), 7);
+        assertEquals("/k", mismatch.path);
+        assertEquals("actual does not contain the key", mismatch.reason);
+        mismatch = DeepComparison.firstMismatch(Arrays.asList("a", Collections.emptyList()), Arrays.asList("a", "b"), 7);
+        assertEquals("/1", mismatch.path);
+        assertEquals("Objects are not equal", mismatch.reason);
+        mismatch = DeepComparison.firstMismatch(Double.NaN, 1.0, 7);
+        assertEquals("", mismatch.path);
+        // BigInteger and BigDecimal leaves are compared by value with the integral types
+        assertNull(DeepComparison.firstMismatch(Arrays.asList(new BigDecimal("1"), BigInteger.ONE, new BigDecimal("2.00")),
+                Arrays.asList(1L, 1, BigInteger.valueOf(2)), 7));
+        mismatch = DeepComparison.firstMismatch(Arrays.asList(BigInteger.ONE), Arrays.asList(2L), 7);
+        assertEquals("/0", mismatch.path);
+        assertEquals("Numbers are not equal", mismatch.reason);
+        mismatch = DeepComparison.firstMismatch(new BigDecimal("1000.5"), 1000L, 7);
+        assertEquals("<LRE: 4>", mismatch.reason);
+    }
+}
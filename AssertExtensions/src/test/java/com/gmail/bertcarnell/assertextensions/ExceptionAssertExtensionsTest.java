@@ -24,6 +24,19 @@ package com.gmail.bertcarnell.assertextensions;
 import static com.gmail.bertcarnell.assertextensions.AssertExtensions.pass;
 import static com.gmail.bertcarnell.assertextensions.ExceptionAssertExtensions.*;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -116,6 +129,30 @@ public class ExceptionAssertExtensionsTest {
         void assertThatIsExpectedToFailOnWrongExceptionMessage() throws Exception {fail("prototype");};
     }
     
+    public static class TestConstructorClass
+    {
+        public TestConstructorClass(double[] values, Object o, double d)
+        {
+            throw new IllegalArgumentException("double");
+        }
+
+        public TestConstructorClass(double[] values, Object o, int i)
+        {
+            if (i < 0)
+            {
+                throw new IndexOutOfBoundsException("int");
+            }
+        }
+    }
+
+    static class PackagePrivateConstructorClass
+    {
+        public PackagePrivateConstructorClass(String s)
+        {
+            throw new IllegalStateException(s);
+        }
+    }
+
     public class TestThrowClass
     {
         public void throwMethod() throws Exception
@@ -716,4 +753,504 @@ public class ExceptionAssertExtensionsTest {
             }
         }.test();
     }
+
+    /**
+     * Test the assertThrows methods with a <code>MessageSupplier</code>
+     * <ul>
+     * <li>Exception</li>
+     * <li>Runnable</li>
+     * <li>Custom Message Supplier</li>
+     * </ul>
+     * @throws Exception
+     */
+    @Test
+    public void testAssertThrows_Exception_Runnable_MessageSupplier() throws Exception
+    {
+        System.out.println("testAssertThrows_Exception_Runnable_MessageSupplier");
+        final MessageSupplier notCalled = new MessageSupplier() {
+            @Override
+            public String get() {
+                throw new IllegalStateException("The message should not be built when the assert passes");
+            }
+        };
+        final ExceptionRunnable throwsNumberFormat = new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                Double.parseDouble("a");
+            }
+        };
+        // will pass without building the message
+        assertThrows(NumberFormatException.class, throwsNumberFormat, notCalled);
+        assertThrows("For input string: \"a\"", NumberFormatException.class, throwsNumberFormat, notCalled);
+        // will fail with the supplied message
+        try
+        {
+            assertThrows(NumberFormatException.class, new ExceptionRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    Double.parseDouble("1.0");
+                }
+            }, new MessageSupplier() {
+                @Override
+                public String get() {
+                    return "custom message";
+                }
+            });
+            throw new NoSuchMethodException("Did not throw");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Expected java.lang.NumberFormatException, but no exception was thrown; custom message", e.getMessage());
+        }
+        catch (NoSuchMethodException e2)
+        {
+            fail(e2.getMessage());
+        }
+    }
+
+    /**
+     * Test that the assertThrows methods fail when nothing is thrown, even when the expected type is the
+     * <code>AssertionError</code> that <code>fail</code> throws, or one of its super classes
+     * @throws Exception
+     */
+    @Test
+    public void testAssertThrows_NothingThrown_AssertionError() throws Exception
+    {
+        System.out.println("testAssertThrows_NothingThrown_AssertionError");
+        final ExceptionRunnable noop = new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+            }
+        };
+        List<Class<? extends Throwable>> types = new ArrayList<Class<? extends Throwable>>();
+        types.add(AssertionError.class);
+        types.add(Error.class);
+        types.add(Throwable.class);
+        for (Class<? extends Throwable> type : types)
+        {
+            boolean failed = false;
+            try
+            {
+                assertThrows(type, noop);
+            }
+            catch (AssertionError e)
+            {
+                failed = true;
+                assertEquals("Expected " + type.getName() + ", but no exception was thrown", e.getMessage());
+            }
+            assertTrue(type.getName(), failed);
+            failed = false;
+            try
+            {
+                assertThrows("message", type, noop);
+            }
+            catch (AssertionError e)
+            {
+                failed = true;
+            }
+            assertTrue(type.getName(), failed);
+        }
+    }
+
+    /**
+     * Test of assertConstuctorThrows with parameter types
+     * @throws Exception
+     */
+    @Test
+    public void testAssertConstructorThrows_ParameterTypes() throws Exception {
+        System.out.println("assertConstuctorThrows parameter types");
+        final Class<?>[] doubleConstructor = new Class<?>[] {double[].class, Object.class, double.class};
+        final Class<?>[] intConstructor = new Class<?>[] {double[].class, Object.class, int.class};
+        new AssertExtenstionsTestTemplate(){
+            @Override
+            void assertThatIsExpectedToPass() throws Exception {
+                assertConstuctorThrows(NumberFormatException.class, Double.class, new Class<?>[] {String.class}, "a");
+                // constructors that differ only by a primitive type
+                assertConstuctorThrows(IllegalArgumentException.class, TestConstructorClass.class, doubleConstructor,
+                        new double[0], "o", Double.valueOf(1.0));
+                assertConstuctorThrows(IndexOutOfBoundsException.class, TestConstructorClass.class, intConstructor,
+                        new double[0], "o", Integer.valueOf(-1));
+                // an Integer argument is widened to a double parameter
+                assertConstuctorThrows(IllegalArgumentException.class, TestConstructorClass.class, doubleConstructor,
+                        new double[0], "o", Integer.valueOf(-1));
+            }
+            @Override
+            void assertThatIsExpectedToFailOnWrongException() throws Exception {
+                assertConstuctorThrows(IndexOutOfBoundsException.class, TestConstructorClass.class, doubleConstructor,
+                        new double[0], "o", Integer.valueOf(-1));
+            }
+            @Override
+            void assertThatIsExpectedToFailOnMissingException() throws Exception {
+                assertConstuctorThrows(IndexOutOfBoundsException.class, TestConstructorClass.class, intConstructor,
+                        new double[0], "o", Integer.valueOf(1));
+            }
+            @Override
+            void assertThatIsExpectedToFailOnWrongExceptionMessage() throws Exception {
+                // a Double argument cannot be passed to an int parameter
+                assertConstuctorThrows(IndexOutOfBoundsException.class, TestConstructorClass.class, intConstructor,
+                        new double[0], "o", Double.valueOf(-1.0));
+            }
+        }.test();
+
+        // a public constructor of a class that is not public
+        assertConstuctorThrows(IllegalStateException.class, PackagePrivateConstructorClass.class.getConstructor(String.class), "a");
+        assertConstuctorThrows(IllegalStateException.class, PackagePrivateConstructorClass.class, new Class<?>[] {String.class}, "a");
+
+        // will fail because there is no such constructor
+        try
+        {
+            assertConstuctorThrows(NumberFormatException.class, Double.class, new Class<?>[] {Object.class}, "a");
+            throw new NoSuchMethodException("Did not throw");
+        }
+        catch (AssertionError e)
+        {
+            System.out.println("\tExpected Exception: " + e.getMessage());
+            pass();
+        }
+    }
+
+    /**
+     * Test of assertThrowsConcurrently method, of class ExceptionAssertExtensions.
+     */
+    @Test
+    public void testAssertThrowsConcurrently() {
+        System.out.println("assertThrowsConcurrently");
+        assertThrowsConcurrently(IllegalStateException.class, new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                throw new IllegalStateException("guarded");
+            }
+        }, 100, 8);
+        // every other run does not throw, and one throws the wrong type
+        final AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            assertThrowsConcurrently(RuntimeException.class, new ExceptionRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    int call = calls.getAndIncrement();
+                    if (call == 1)
+                    {
+                        throw new IOException("wrong");
+                    }
+                    if (call % 2 == 0)
+                    {
+                        throw new IllegalArgumentException("subclass");
+                    }
+                }
+            }, 10, executor);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Expected java.lang.RuntimeException from all 10 runs, but 4 threw no exception and 1 threw the wrong type, first java.io.IOException",
+                    e.getMessage());
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test of assertThrowsConcurrently method with executors that reject or run tasks inline, of class
+     * ExceptionAssertExtensions.
+     */
+    @Test
+    public void testAssertThrowsConcurrentlyExecutors() throws InterruptedException {
+        System.out.println("assertThrowsConcurrently");
+        final ExceptionRunnable thrower = new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                throw new IllegalStateException("guarded");
+            }
+        };
+        // the second run is rejected, and the first must still be released from the gate
+        ThreadPoolExecutor rejecting = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new ThreadPoolExecutor.AbortPolicy());
+        try
+        {
+            assertThrowsConcurrently(IllegalStateException.class, thrower, 2, rejecting);
+            fail("Not thrown");
+        }
+        catch (RejectedExecutionException e)
+        {
+            rejecting.shutdown();
+            assertTrue(rejecting.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        // the second run is run on the calling thread
+        ThreadPoolExecutor callerRuns = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new ThreadPoolExecutor.CallerRunsPolicy());
+        try
+        {
+            assertThrowsConcurrently(IllegalStateException.class, thrower, 2, callerRuns);
+            fail("Not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertEquals("The executor ran a task on the calling thread", e.getMessage());
+            callerRuns.shutdown();
+            assertTrue(callerRuns.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        // there must be at least one run
+        ExecutorService pool = Executors.newFixedThreadPool(1);
+        try
+        {
+            for (int runs : new int[] {0, -1})
+            {
+                try
+                {
+                    assertThrowsConcurrently(IllegalStateException.class, thrower, runs, pool);
+                    fail("Not thrown");
+                }
+                catch (IllegalArgumentException e)
+                {
+                    assertEquals("runs must be at least 1, but was " + runs, e.getMessage());
+                }
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        // the runs do not finish in time
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            assertThrowsConcurrently(IllegalStateException.class, new ExceptionRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    release.await();
+                    throw new IllegalStateException("late");
+                }
+            }, 2, executor, 50, TimeUnit.MILLISECONDS);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Expected java.lang.IllegalStateException from all 2 runs, but only 0 finished within 50 milliseconds",
+                    e.getMessage());
+        }
+        finally
+        {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test of assertThrows method with a timeout, of class ExceptionAssertExtensions.
+     */
+    @Test
+    public void testAssertThrowsTimeout() {
+        System.out.println("assertThrows timeout");
+        assertThrows(IllegalStateException.class, new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                throw new IllegalStateException("fast");
+            }
+        }, 10, TimeUnit.SECONDS);
+        assertThrowsAndDoAssertsInCatch(IllegalStateException.class, new ExceptionAssertionsPerformer<IllegalStateException>() {
+            @Override
+            public void performThrowingAction() throws Throwable {
+                throw new IllegalStateException("fast");
+            }
+
+            @Override
+            public void performAssertionsAfterCatch(IllegalStateException th) throws Exception {
+                assertEquals("fast", th.getMessage());
+            }
+        }, 10, TimeUnit.SECONDS);
+        long begin = System.nanoTime();
+        try
+        {
+            assertThrows(IllegalStateException.class, new ExceptionRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    Thread.sleep(10000);
+                    throw new IllegalStateException("slow");
+                }
+            }, 100, TimeUnit.MILLISECONDS);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage().startsWith(
+                    "Expected java.lang.IllegalStateException, but the action did not finish within 100 milliseconds"));
+            assertTrue(e.getMessage().contains("java.lang.Thread.sleep"));
+        }
+        assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(5));
+        try
+        {
+            assertThrows(IllegalStateException.class, new ExceptionRunnable() {
+                @Override
+                public void run() throws Throwable {
+                }
+            }, 10, TimeUnit.SECONDS);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Expected java.lang.IllegalStateException, but no exception was thrown", e.getMessage());
+        }
+    }
+
+    /**
+     * Test of assertThrowsAsync method, of class ExceptionAssertExtensions.
+     */
+    @Test
+    public void testAssertThrowsAsync() throws Exception {
+        System.out.println("assertThrowsAsync");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<?> thrower = executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    throw new IOException("async");
+                }
+            });
+            assertThrowsAsync(IOException.class, thrower, 10, TimeUnit.SECONDS);
+            assertThrowsAsync(Exception.class, thrower, 10, TimeUnit.SECONDS);
+            assertThrowsAsync("async", IOException.class, thrower, 10, TimeUnit.SECONDS);
+            try
+            {
+                assertThrowsAsync("other", IOException.class, thrower, 10, TimeUnit.SECONDS);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertEquals("Expected java.io.IOException with message other, but was java.io.IOException with message async",
+                        e.getMessage());
+            }
+            try
+            {
+                assertThrowsAsync(IllegalStateException.class, thrower, 10, TimeUnit.SECONDS);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertEquals("Expected java.lang.IllegalStateException, but was java.io.IOException", e.getMessage());
+            }
+            Future<?> passer = executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return null;
+                }
+            });
+            try
+            {
+                assertThrowsAsync(IOException.class, passer, 10, TimeUnit.SECONDS);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertEquals("Expected java.io.IOException, but no exception was thrown", e.getMessage());
+            }
+            final CountDownLatch release = new CountDownLatch(1);
+            Future<?> waiter = executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    release.await();
+                    return null;
+                }
+            });
+            try
+            {
+                assertThrowsAsync(IOException.class, waiter, 50, TimeUnit.MILLISECONDS);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertEquals("Expected java.io.IOException, but the future did not complete within 50 milliseconds",
+                        e.getMessage());
+            }
+            waiter.cancel(true);
+            assertThrowsAsync(CancellationException.class, waiter, 10, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test of assertThrowsSummary method, of class ExceptionAssertExtensions.
+     */
+    @Test
+    public void testAssertThrowsSummary() {
+        System.out.println("assertThrowsSummary");
+        ThrownSummary summary = assertThrowsSummary(RuntimeException.class, new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                throw new IllegalStateException("outer", new IOException("inner"));
+            }
+        });
+        assertSame(IllegalStateException.class, summary.getType());
+        assertEquals("outer", summary.getMessage());
+        assertSame(IOException.class, summary.getCause().getType());
+        assertNull(summary.getCause().getCause());
+        try
+        {
+            assertThrowsSummary(IOException.class, new ExceptionRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    throw new IllegalStateException("wrong");
+                }
+            });
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Expected java.io.IOException, but was java.lang.IllegalStateException", e.getMessage());
+        }
+    }
+
+    /**
+     * Test of assertThrowsForAll and assertThrowsForAllParallel methods, of class ExceptionAssertExtensions.
+     */
+    @Test
+    public void testAssertThrowsForAll() {
+        System.out.println("assertThrowsForAll");
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (int i = 0; i < 1000; i++)
+        {
+            rows.add(new Object[] {"bad" + i});
+        }
+        Double target = Double.valueOf(0.0);
+        assertThrowsForAll(NumberFormatException.class, target, "parseDouble", rows);
+        assertThrowsForAllParallel(NumberFormatException.class, target, "parseDouble", rows);
+        rows.set(3, new Object[] {"1.5"});
+        rows.set(7, new Object[] {null});
+        for (int i = 500; i < 520; i++)
+        {
+            rows.set(i, new Object[] {"2"});
+        }
+        String expected = "Method parseDouble did not throw class java.lang.NumberFormatException for 22 of 1000 inputs: "
+                + "[3] [1.5] returned normally, [7] [null] threw class java.lang.NullPointerException, "
+                + "[500] [2] returned normally, [501] [2] returned normally, [502] [2] returned normally, "
+                + "[503] [2] returned normally, [504] [2] returned normally, [505] [2] returned normally, "
+                + "[506] [2] returned normally, [507] [2] returned normally and 12 more";
+        try
+        {
+            assertThrowsForAll(NumberFormatException.class, target, "parseDouble", rows);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals(expected, e.getMessage());
+        }
+        try
+        {
+            assertThrowsForAllParallel(NumberFormatException.class, target, "parseDouble", rows);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals(expected, e.getMessage());
+        }
+    }
 }
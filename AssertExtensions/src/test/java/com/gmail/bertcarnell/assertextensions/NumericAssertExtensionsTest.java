@@ -23,7 +23,22 @@ package com.gmail.bertcarnell.assertextensions;
 
 import static com.gmail.bertcarnell.assertextensions.AssertExtensions.pass;
 import static com.gmail.bertcarnell.assertextensions.NumericAssertExtensions.*;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -166,6 +181,32 @@ public class NumericAssertExtensionsTest {
         assertEqualsLREWillFail(new BigDecimal("100.0"), new BigDecimal("0.003"), 2);
     }
 
+    /**
+     * Test of calculateLRE method for BigDecimal, of class NumericAssertExtensions.
+     */
+    @Test
+    public void testCalculateLRE_BigDecimal() {
+        System.out.println("calculateLRE");
+        assertEquals(20, calculateLRE(new BigDecimal("123456712345671234567"), new BigDecimal("123456712345671234568")));
+        assertEquals(3, calculateLRE(new BigDecimal("-1.234"), new BigDecimal("-1.235")));
+        // values with different scales are compared digit by digit
+        assertEquals(5, calculateLRE(new BigDecimal("1.5"), new BigDecimal("1.50001")));
+        assertEquals(5, calculateLRE(new BigDecimal("1.50001"), new BigDecimal("1.5")));
+        assertEquals(2, calculateLRE(new BigDecimal("1.2E+5"), new BigDecimal("123000")));
+        // the exponent is compared
+        assertEquals(0, calculateLRE(new BigDecimal("1E+5"), new BigDecimal("1E+3")));
+        assertEquals(0, calculateLRE(new BigDecimal("100.0"), new BigDecimal("0.003")));
+        assertEquals(0, calculateLRE(new BigDecimal("1.0"), new BigDecimal("0.99999")));
+        assertEquals(0, calculateLRE(new BigDecimal("1.0"), new BigDecimal("-1.0")));
+        assertEquals(0, calculateLRE(new BigDecimal("1.0"), BigDecimal.ZERO));
+        // an expected value of zero uses the places after the decimal point
+        assertEquals(2, calculateLRE(BigDecimal.ZERO, new BigDecimal("0.003")));
+        assertEquals(3, calculateLRE(BigDecimal.ZERO, new BigDecimal("-0.001")));
+        assertEquals(0, calculateLRE(BigDecimal.ZERO, new BigDecimal("5")));
+        assertEqualsLREWillFail(new BigDecimal("1E+5"), new BigDecimal("1E+3"), 1);
+        assertEqualsLRE(new BigDecimal("0.00"), new BigDecimal("0.0001"), 3);
+    }
+
     /**
      * Test of assertEqualsLRE method, of class AssertExtensions.
      */
@@ -180,4 +221,579 @@ public class NumericAssertExtensionsTest {
         // will fail
         assertEqualsLREWillFail(message, expected, actual, 21);
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings({"BroadCatchBlock", "TooBroadCatch"})
+    private void assertEqualsLREWillFail(double[] expected, double[] actual, int lre)
+    {
+        try
+        {
+            assertEqualsLRE(expected, actual, lre);
+            throw new NoSuchMethodException("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            System.out.println("\tExpected Exception: " + e.getMessage());
+            pass();
+        }
+        catch (Exception e2)
+        {
+            fail("Wrong exception thrown:" + e2.getMessage());
+        }
+    }
+
+    /**
+     * Test of assertEqualsLRE method for arrays, of class NumericAssertExtensions.
+     */
+    @Test
+    public void testAssertEqualsLRE_3args_3() {
+        System.out.println("assertEqualsLRE");
+        double[] expected = new double[] {1234.5678, 0.0, 1.23456E-50, Double.POSITIVE_INFINITY};
+        double[] actual = new double[] {1234.5679, 1E-12, 1.23499E-50, Double.POSITIVE_INFINITY};
+        // will pass
+        assertEqualsLRE(expected, actual, 3);
+        assertEqualsLRE((double[]) null, (double[]) null, 3);
+        assertEqualsLRE(new double[0], new double[0], 3);
+        // will fail
+        assertEqualsLREWillFail(expected, actual, 4);
+        assertEqualsLREWillFail(expected, null, 4);
+        assertEqualsLREWillFail(expected, new double[] {1234.5678}, 4);
+        assertEqualsLREWillFail(new double[] {1.0}, new double[] {Double.NaN}, 1);
+        // NaN fails the same way as the scalar assert
+        assertEqualsLREWillFail(new double[] {Double.NaN}, new double[] {Double.NaN}, 1);
+        assertEqualsLREWillFail(new double[] {1.0}, new double[] {Double.NEGATIVE_INFINITY}, 1);
+
+        // the worst element is reported
+        try
+        {
+            assertEqualsLRE("abc", new double[] {1.0, 1.0, 1.0}, new double[] {1.001, 1.1, 1.01}, 4);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("abc <LRE: 1.000000> at index 1; 3 elements failed"));
+        }
+
+        // the array assert agrees with the scalar assert for values near the threshold
+        Random random = new Random(1234);
+        for (int i = 0; i < 10000; i++)
+        {
+            int lre = 1 + random.nextInt(14);
+            double e = (random.nextDouble() - 0.5) * Math.pow(10.0, random.nextInt(20) - 10);
+            double a = e * (1.0 + (random.nextBoolean() ? 1.0 : -1.0) * Math.pow(10.0, -lre) * (1.0 + (random.nextDouble() - 0.5) * 1E-6));
+            boolean scalarFailed = false;
+            try
+            {
+                assertEqualsLRE(e, a, lre);
+            }
+            catch (AssertionError ae)
+            {
+                scalarFailed = true;
+            }
+            boolean arrayFailed = false;
+            try
+            {
+                assertEqualsLRE(new double[] {e}, new double[] {a}, lre);
+            }
+            catch (AssertionError ae)
+            {
+                arrayFailed = true;
+            }
+            assertEquals(e + " " + a + " " + lre, scalarFailed, arrayFailed);
+        }
+    }
+
+    /**
+     * Test of assertEqualsLRE methods with a <code>MessageSupplier</code>, of class NumericAssertExtensions.
+     */
+    @Test
+    public void testAssertEqualsLRE_MessageSupplier() {
+        System.out.println("assertEqualsLRE MessageSupplier");
+        MessageSupplier notCalled = new MessageSupplier() {
+            @Override
+            public String get() {
+                throw new IllegalStateException("The message should not be built when the assert passes");
+            }
+        };
+        MessageSupplier abc = new MessageSupplier() {
+            @Override
+            public String get() {
+                return "abc";
+            }
+        };
+        // will pass without building the message
+        assertEqualsLRE(notCalled, 1234.5678, 1234.5679, 7);
+        assertEqualsLRE(notCalled, new double[] {1234.5678}, new double[] {1234.5679}, 7);
+        assertEqualsLRE(notCalled, new BigDecimal("123456712345671234567"), new BigDecimal("123456712345671234568"), 20);
+        // will fail with the supplied message
+        try
+        {
+            assertEqualsLRE(abc, 1234.5678, 1234.5679, 8);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("abc <LRE: 7."));
+        }
+        try
+        {
+            assertEqualsLRE(abc, new double[] {1234.5678}, new double[] {1234.5679}, 8);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("abc <LRE: 7."));
+        }
+        try
+        {
+            assertEqualsLRE(abc, new BigDecimal("123456712345671234567"), new BigDecimal("123456712345671234568"), 21);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("abc LRE: <20>"));
+        }
+    }
+
+    /**
+     * Test of ulpDistance method, of class NumericAssertExtensions.
+     */
+    @Test
+    public void testUlpDistance() {
+        System.out.println("ulpDistance");
+        assertEquals(0L, ulpDistance(1.0, 1.0));
+        assertEquals(1L, ulpDistance(1.0, Math.nextUp(1.0)));
+        assertEquals(1L, ulpDistance(-1.0, Math.nextAfter(-1.0, 0.0)));
+        assertEquals(0L, ulpDistance(0.0, -0.0));
+        assertEquals(2L, ulpDistance(Double.MIN_VALUE, -Double.MIN_VALUE));
+        assertEquals(0L, ulpDistance(Double.NaN, Double.NaN));
+        assertEquals(Long.MAX_VALUE, ulpDistance(Double.NaN, 1.0));
+        assertEquals(Long.MAX_VALUE, ulpDistance(Double.MAX_VALUE, Double.POSITIVE_INFINITY));
+        assertEquals(0L, ulpDistance(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY));
+        // saturates instead of overflowing
+        assertEquals(Long.MAX_VALUE, ulpDistance(Double.MAX_VALUE, -Double.MAX_VALUE));
+        assertEquals(1L, ulpDistance(1.0f, Math.nextUp(1.0f)));
+        assertEquals(0L, ulpDistance(0.0f, -0.0f));
+        assertEquals(2L * (Float.floatToIntBits(Float.MAX_VALUE)), ulpDistance(Float.MAX_VALUE, -Float.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, ulpDistance(Float.NaN, Float.POSITIVE_INFINITY));
+    }
+
+    /**
+     * Test of assertDeepEqualsLRE method, of class NumericAssertExtensions.
+     */
+    @Test
+    public void testAssertDeepEqualsLRE() {
+        System.out.println("assertDeepEqualsLRE");
+        List<Map<String, Object>> expected = new ArrayList<Map<String, Object>>();
+        List<Map<String, Object>> actual = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < 3; i++)
+        {
+            Map<String, Object> e = new LinkedHashMap<String, Object>();
+            e.put("id", Integer.valueOf(i));
+            e.put("a/b~c", new double[] {1.0, 2.0, 3.0});
+            e.put("score", Double.valueOf(0.5));
+            e.put("tags", new TreeSet<String>(Arrays.asList("x", "y")));
+            expected.add(e);
+            Map<String, Object> a = new HashMap<String, Object>();
+            a.put("id", Long.valueOf(i));
+            a.put("a/b~c", new double[] {1.0, 2.0000001, 3.0});
+            a.put("score", Float.valueOf(0.5f));
+            a.put("tags", new TreeSet<String>(Arrays.asList("x", "y")));
+            actual.add(a);
+        }
+        assertDeepEqualsLRE(expected, actual, 6);
+        assertDeepEqualsLRE(null, null, 6);
+        try
+        {
+            assertDeepEqualsLRE("abc", expected, actual, 8);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("abc <LRE: 7.301030> at \"/0/a~1b~0c/1\" expected:<2.0> but was:<2.0000001>", e.getMessage());
+        }
+        actual.get(2).put("score", Double.valueOf(0.6));
+        try
+        {
+            assertDeepEqualsLRE(expected, actual, 6);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("<LRE: 0.698970> at \"/2/score\" expected:<0.5> but was:<0.6>", e.getMessage());
+        }
+        actual.get(1).remove("tags");
+        actual.get(1).put("other", null);
+        try
+        {
+            assertDeepEqualsLRE(expected, actual, 6);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("actual does not contain the key at \"/1/tags\" expected:<[x, y]> but was:<null>", e.getMessage());
+        }
+        actual.remove(2);
+        try
+        {
+            assertDeepEqualsLRE(expected, actual, 6);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Lists have unequal sizes at \"\" expected:<3> but was:<2>", e.getMessage());
+        }
+        try
+        {
+            assertDeepEqualsLRE(new Object[] {new int[] {1, 2}}, new Object[] {new int[] {1, 3}}, 6);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Arrays are not equal at \"/0\" expected:<[1, 2]> but was:<[1, 3]>", e.getMessage());
+        }
+        // nesting much deeper than the thread stack would allow for recursion
+        List<Object> deepExpected = new ArrayList<Object>();
+        List<Object> deepActual = new ArrayList<Object>();
+        List<Object> e = deepExpected;
+        List<Object> a = deepActual;
+        for (int i = 0; i < 100000; i++)
+        {
+            List<Object> nextExpected = new ArrayList<Object>();
+            List<Object> nextActual = new ArrayList<Object>();
+            e.add(nextExpected);
+            a.add(nextActual);
+            e = nextExpected;
+            a = nextActual;
+        }
+        e.add(Double.valueOf(1.0));
+        a.add(Double.valueOf(1.0));
+        assertDeepEqualsLRE(deepExpected, deepActual, 15);
+    }
+
+    /**
+     * Test of assertMapEqualsLRE method, of class NumericAssertExtensions.
+     */
+    @Test
+    public void testAssertMapEqualsLRE() {
+        System.out.println("assertMapEqualsLRE");
+        long[] keys = {1L, 5L, Long.MIN_VALUE, 42L};
+        double[] values = {1.0, 2.5, 3.0, 0.0};
+        assertMapEqualsLRE(keys, values, keys.clone(), new double[] {1.0, 2.5000001, 3.0, 0.0}, 6);
+        assertMapEqualsLRE(new long[0], new double[0], new long[0], new double[0], 6);
+        // the same map with the keys in another order
+        long[] shuffledKeys = {42L, Long.MIN_VALUE, 1L, 5L};
+        double[] shuffledValues = {0.0, 3.0, 1.0, 2.5};
+        assertMapEqualsLRE(keys, values, shuffledKeys, shuffledValues, 15);
+        try
+        {
+            assertMapEqualsLRE("abc", keys, values, shuffledKeys, new double[] {0.0, 3.0, 1.0, 2.6}, 6);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("abc <LRE: 1.397940> at key 5; 1 elements failed"));
+        }
+        try
+        {
+            assertMapEqualsLRE(keys, values, new long[] {42L, Long.MIN_VALUE, 1L, 6L}, shuffledValues, 6);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("actual does not contain key 5", e.getMessage());
+        }
+        try
+        {
+            assertMapEqualsLRE(keys, values, new long[] {42L, Long.MIN_VALUE, 1L, 1L}, shuffledValues, 6);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("actual contains key 1 more than once", e.getMessage());
+        }
+        try
+        {
+            assertMapEqualsLRE(new long[] {3L, 3L}, new double[2], new long[] {3L, 4L}, new double[2], 6);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("expected contains key 3 more than once", e.getMessage());
+        }
+        try
+        {
+            assertMapEqualsLRE(new long[] {3L, 3L}, new double[2], new long[] {3L, 3L}, new double[2], 6);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("expected contains key 3 more than once", e.getMessage());
+        }
+        try
+        {
+            assertMapEqualsLRE(keys, values, new long[] {1L}, new double[] {1.0}, 6);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Maps have unequal sizes"));
+        }
+        // negative keys are positions like any other
+        try
+        {
+            assertMapEqualsLRE(new long[] {-1L, 2L}, new double[] {1.0, 1.0}, new long[] {-1L, 2L},
+                    new double[] {1.5, 1.00001}, 8);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("<LRE: 0.301030> at key -1; 2 elements failed"));
+        }
+        try
+        {
+            assertMapEqualsLRE(new long[] {2L, -1L}, new double[] {1.0, 1.0}, new long[] {-1L, 2L},
+                    new double[] {1.5, 1.00001}, 8);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("<LRE: 0.301030> at key -1; 2 elements failed"));
+        }
+        // a larger map that is indexed through several probes
+        int n = 100000;
+        long[] largeKeys = new long[n];
+        double[] largeValues = new double[n];
+        long[] reversedKeys = new long[n];
+        double[] reversedValues = new double[n];
+        for (int i = 0; i < n; i++)
+        {
+            largeKeys[i] = (long) i << 32;
+            largeValues[i] = i * 0.5;
+            reversedKeys[n - 1 - i] = largeKeys[i];
+            reversedValues[n - 1 - i] = largeValues[i];
+        }
+        assertMapEqualsLRE(largeKeys, largeValues, reversedKeys, reversedValues, 15);
+    }
+
+    /**
+     * Test of assertEqualsUlps method, of class NumericAssertExtensions.
+     */
+    @Test
+    public void testAssertEqualsUlps() {
+        System.out.println("assertEqualsUlps");
+        double next = Math.nextUp(Math.nextUp(0.1));
+        assertEqualsUlps(0.1, next, 2L);
+        assertEqualsUlps(0.1f, Math.nextUp(0.1f), 1);
+        assertEqualsUlps(new double[] {0.0, 1.0, Double.NaN}, new double[] {-0.0, 1.0, Double.NaN}, 0L);
+        assertEqualsUlps(new float[] {1.0f, Float.POSITIVE_INFINITY}, new float[] {1.0f, Float.POSITIVE_INFINITY}, 0);
+        assertEqualsUlps((double[]) null, (double[]) null, 0L);
+        try
+        {
+            assertEqualsUlps("abc", 0.1, next, 1L);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("abc <ULPs: 2>"));
+        }
+        try
+        {
+            assertEqualsUlps(new double[] {1.0, 2.0, 3.0}, new double[] {Math.nextUp(1.0), 2.0, Math.nextUp(Math.nextUp(3.0))}, 0L);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("<ULPs: 2> at index 2; 2 elements failed"));
+        }
+        try
+        {
+            assertEqualsUlps(new float[] {1.0f, Float.NaN}, new float[] {1.0f, 1.0f}, 1000);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("<ULPs: " + Long.MAX_VALUE + "> at index 1"));
+        }
+        try
+        {
+            assertEqualsUlps(new float[] {1.0f}, new float[] {1.0f, 1.0f}, 0);
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Arrays have unequal lengths"));
+        }
+    }
+
+    /**
+     * Write doubles to a temporary binary file
+     */
+    private static Path writeDoubles(ByteOrder order, double... values) throws IOException
+    {
+        ByteBuffer bytes = ByteBuffer.allocate(values.length * 8).order(order);
+        bytes.asDoubleBuffer().put(values);
+        Path path = Files.createTempFile("NumericAssertExtensionsTest", ".bin");
+        Files.write(path, bytes.array());
+        return path;
+    }
+
+    /**
+     * Test of assertBinaryEqualsLRE method, of class NumericAssertExtensions.
+     */
+    @Test
+    public void testAssertBinaryEqualsLRE() throws IOException {
+        System.out.println("assertBinaryEqualsLRE");
+        double[] values = new double[1000];
+        double[] close = new double[values.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = 1234.5678 + i;
+            close[i] = values[i] * (1.0 + 1E-9);
+        }
+        Path expected = writeDoubles(ByteOrder.BIG_ENDIAN, values);
+        Path actual = writeDoubles(ByteOrder.BIG_ENDIAN, close);
+        Path little = writeDoubles(ByteOrder.LITTLE_ENDIAN, close);
+        close[700] = values[700] * 1.0001;
+        close[900] = values[900] * 1.001;
+        Path different = writeDoubles(ByteOrder.BIG_ENDIAN, close);
+        Path odd = Files.createTempFile("NumericAssertExtensionsTest", ".bin");
+        Files.write(odd, new byte[] {1, 2, 3});
+        try
+        {
+            assertBinaryEqualsLRE(expected, actual, 8);
+            assertBinaryEqualsLRE(expected, DoubleBuffer.wrap(values), 15);
+            assertBinaryEqualsLRE((MessageSupplier) null, little, DoubleBuffer.wrap(values), ByteOrder.LITTLE_ENDIAN, 8);
+            assertBinaryEqualsLRE("abc", little, little, ByteOrder.LITTLE_ENDIAN, 8);
+            // several chunks of 10 values each
+            assertMappedEqualsLRE(null, expected, actual, null, ByteOrder.BIG_ENDIAN, 8, 80);
+            try
+            {
+                assertMappedEqualsLRE(null, expected, different, null, ByteOrder.BIG_ENDIAN, 8, 80);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertTrue(e.getMessage(), e.getMessage().matches("<LRE: 3\\.\\d+> at index 900; 2 elements failed.*"));
+            }
+            try
+            {
+                assertBinaryEqualsLRE(expected, little, 8);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertTrue(e.getMessage(), e.getMessage().contains("1000 elements failed"));
+            }
+            try
+            {
+                assertBinaryEqualsLRE("abc", expected, DoubleBuffer.wrap(close), ByteOrder.BIG_ENDIAN, 8);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("abc <LRE: 3."));
+            }
+            try
+            {
+                assertBinaryEqualsLRE(expected, DoubleBuffer.wrap(values, 1, 999), 8);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("File and buffer have unequal lengths"));
+            }
+            try
+            {
+                assertBinaryEqualsLRE(expected, odd, 8);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertTrue(e.getMessage(), e.getMessage().endsWith("is 3 bytes, which is not a multiple of 8"));
+            }
+        }
+        finally
+        {
+            for (Path path : new Path[] {expected, actual, little, different, odd})
+            {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Test of assertTextEqualsLRE method, of class NumericAssertExtensions.
+     */
+    @Test
+    public void testAssertTextEqualsLRE() throws IOException {
+        System.out.println("assertTextEqualsLRE");
+        Path expected = Files.createTempFile("NumericAssertExtensionsTest", ".csv");
+        Path actual = Files.createTempFile("NumericAssertExtensionsTest", ".csv");
+        try
+        {
+            Files.write(expected, "x,y\n1234.5678,2.0\n0.0,-3E5\n".getBytes(StandardCharsets.UTF_8));
+            Files.write(actual, "x, y\r\n1234.5679, 2.00\r\n1E-9, -300000\r\n".getBytes(StandardCharsets.UTF_8));
+            assertTextEqualsLRE(expected, actual, 7);
+            assertTextEqualsLRE(ConstantMessage.of("abc"), expected, actual, 7);
+            try
+            {
+                assertTextEqualsLRE(expected, actual, 8);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("<LRE: 7.") && e.getMessage().contains("> at row 2, column 1"));
+            }
+            Files.write(actual, "x,z\n1234.5678,2.0\n0.0,-3E5\n".getBytes(StandardCharsets.UTF_8));
+            try
+            {
+                assertTextEqualsLRE("abc", expected, actual, 7);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertEquals("abc at row 1, column 2 expected:<[y]> but was:<[z]>", e.getMessage());
+            }
+            Files.write(actual, "x,y\n1234.5678\n2.0,0.0,-3E5\n".getBytes(StandardCharsets.UTF_8));
+            try
+            {
+                assertTextEqualsLRE(expected, actual, 7);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertEquals("The tables have different shapes; expected row 2, column 2 but was row 3, column 1", e.getMessage());
+            }
+            Files.write(actual, "x,y\n1234.5678,2.0\n0.0,-3E5,1\n".getBytes(StandardCharsets.UTF_8));
+            try
+            {
+                assertTextEqualsLRE(expected, actual, 7);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertEquals("Actual has more cells, starting at row 3, column 3", e.getMessage());
+            }
+            // the same table with CR line endings
+            Files.write(actual, "x,y\r1234.5678,2.0\r0.0,-3E5\r".getBytes(StandardCharsets.UTF_8));
+            assertTextEqualsLRE(expected, actual, 7);
+            // NaN cells have the same text, but fail like the other LRE asserts
+            Files.write(expected, "x,y\n1.0,NaN\n".getBytes(StandardCharsets.UTF_8));
+            Files.write(actual, "x,y\n1.0,NaN\n".getBytes(StandardCharsets.UTF_8));
+            try
+            {
+                assertTextEqualsLRE(expected, actual, 7);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                assertEquals("<LRE: NaN> at row 2, column 2", e.getMessage());
+            }
+        }
+        finally
+        {
+            Files.delete(expected);
+            Files.delete(actual);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public class NumericTableReaderTest {
+
+    public NumericTableReaderTest() {
+    }
+
+    private static NumericTableReader reader(String text, int bufferSize)
+    {
+        return new NumericTableReader(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))), bufferSize);
+    }
+
+    /**
+     * Test that cells are split on separators and lines, including cells split across buffers
+     * @throws IOException
+     */
+    @Test
+    public void testNext() throws IOException {
+        System.out.println("next");
+        try (NumericTableReader cells = reader("x, y\r\n1.5,\t-2e3\n\n  abc,12345678901234567890\n", 3))
+        {
+            assertTrue(cells.next());
+            assertFalse(cells.isNumber());
+            assertEquals("x", cells.text());
+            assertTrue(cells.next());
+            assertEquals(1L, cells.row());
+            assertEquals(2, cells.column());
+            assertTrue(cells.next());
+            assertEquals(2L, cells.row());
+            assertEquals(1, cells.column());
+            assertTrue(cells.isNumber());
+            assertEquals(1.5, cells.value(), 0.0);
+            assertTrue(cells.next());
+            assertEquals(-2000.0, cells.value(), 0.0);
+            assertTrue(cells.next());
+            assertEquals(4L, cells.row());
+            assertEquals(1, cells.column());
+            assertEquals("abc", cells.text());
+            assertTrue(cells.next());
+            assertEquals(2, cells.column());
+            assertEquals(12345678901234567890.0, cells.value(), 0.0);
+            assertFalse(cells.next());
+            assertFalse(cells.next());
+        }
+    }
+
+    /**
+     * Test that lines may end with LF, CRLF or CR alone, including a CRLF split across buffers
+     * @throws IOException
+     */
+    @Test
+    public void testLineEndings() throws IOException {
+        System.out.println("line endings");
+        try (NumericTableReader cells = reader("a,b\r1,2\r\n3\n\r4\r\r5", 4))
+        {
+            long[] rows = {1L, 1L, 2L, 2L, 3L, 5L, 7L};
+            for (long row : rows)
+            {
+                assertTrue(cells.next());
+                assertEquals(row, cells.row());
+            }
+            assertEquals(1, cells.column());
+            assertFalse(cells.next());
+        }
+    }
+
+    /**
+     * Test that numbers are parsed to the same value as <code>Double.parseDouble</code>
+     * @throws IOException
+     */
+    @Test
+    public void testParse() throws IOException {
+        System.out.println("parse");
+        String[] cells = {"0", "-0", "+1", "1.", ".5", "0.1", "123456789012345", "1234567890123456", "9007199254740993",
+            "1e22", "1e23", "1E-22", "4.9e-324", "1.7976931348623157E308", "1e400", "NaN", "-Infinity", "0.000000000000000000000001",
+            "00000000000000000000000001.5", "1e", "e5", "1.2.3", "--1", "-", "0x1p3", "-0X1.8P-1", "1.5d", "2F", "+NaN", "Name",
+            "Info", "NaNs", "Infinite", "2nd", "x1", ".", "1,5"};
+        Random random = new Random(1234);
+        StringBuilder text = new StringBuilder();
+        for (String cell : cells)
+        {
+            text.append(cell).append(',');
+        }
+        for (int i = 0; i < 10000; i++)
+        {
+            double d = random.nextBoolean() ? random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)
+                    : (random.nextInt(2000000) - 1000000) / 1000.0;
+            text.append(d).append('\n').append(String.format("%.6f", d)).append(' ');
+        }
+        try (NumericTableReader reader = reader(text.toString(), NumericTableReader.BUFFER_SIZE))
+        {
+            while (reader.next())
+            {
+                String cell = reader.text();
+                Double expected;
+                try
+                {
+                    expected = Double.valueOf(cell);
+                }
+                catch (NumberFormatException e)
+                {
+                    expected = null;
+                }
+                assertEquals(cell, expected != null, reader.isNumber());
+                if (expected != null)
+                {
+                    assertEquals(cell, Double.doubleToLongBits(expected.doubleValue()), Double.doubleToLongBits(reader.value()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import static com.gmail.bertcarnell.assertextensions.ExceptionAssertExtensions.assertThrows;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public class ReflectiveInvokerTest {
+
+    public ReflectiveInvokerTest() {
+    }
+
+    public static class Overloads
+    {
+        public String value(int i)
+        {
+            return "int";
+        }
+
+        public String value(double d)
+        {
+            return "double";
+        }
+
+        public String value(Object o)
+        {
+            return "Object";
+        }
+
+        public String value(String s)
+        {
+            return "String";
+        }
+
+        public void throwError()
+        {
+            throw new OutOfMemoryError("Test Error");
+        }
+    }
+
+    /**
+     * Test that overloads are resolved like <code>java.beans.Statement</code>
+     * @throws Throwable
+     */
+    @Test
+    public void testInvokeOverloads() throws Throwable {
+        System.out.println("invoke overloads");
+        Overloads target = new Overloads();
+        assertEquals("int", ReflectiveInvoker.invoke(target, "value", Integer.valueOf(1)));
+        assertEquals("double", ReflectiveInvoker.invoke(target, "value", Double.valueOf(1.0)));
+        assertEquals("String", ReflectiveInvoker.invoke(target, "value", "a"));
+        assertEquals("Object", ReflectiveInvoker.invoke(target, "value", Long.valueOf(1L)));
+        // null matches String and Object, and String is more specific
+        assertEquals("String", ReflectiveInvoker.invoke(target, "value", (Object) null));
+    }
+
+    /**
+     * Test static methods called on an instance and on the <code>Class</code>
+     * @throws Throwable
+     */
+    @Test
+    public void testInvokeStatic() throws Throwable {
+        System.out.println("invoke static");
+        assertEquals(Double.valueOf(1.5), ReflectiveInvoker.invoke(Double.valueOf(0), "parseDouble", "1.5"));
+        assertEquals(Double.valueOf(2.5), ReflectiveInvoker.invoke(Double.class, "parseDouble", "2.5"));
+        assertEquals(Integer.valueOf(3), ReflectiveInvoker.invoke(Math.class, "max", Integer.valueOf(1), Integer.valueOf(3)));
+    }
+
+    /**
+     * Test that a call is resolved once and cached
+     */
+    @Test
+    public void testFindInvokerIsCached() {
+        System.out.println("findInvoker cached");
+        Overloads target = new Overloads();
+        ReflectiveInvoker.Invoker first = ReflectiveInvoker.findInvoker(target, "value", new Object[] {"a"});
+        assertSame(first, ReflectiveInvoker.findInvoker(new Overloads(), "value", new Object[] {"b"}));
+        assertNotSame(first, ReflectiveInvoker.findInvoker(target, "value", new Object[] {Integer.valueOf(1)}));
+    }
+
+    /**
+     * Test that exceptions thrown by the method are thrown unchanged
+     * @throws Exception
+     */
+    @Test
+    public void testInvokeThrows() throws Exception {
+        System.out.println("invoke throws");
+        // a public method declared by a class that is not public
+        List<String> list = Collections.unmodifiableList(new ArrayList<String>());
+        assertThrows(UnsupportedOperationException.class, list, "add", "a");
+        assertThrows(IndexOutOfBoundsException.class, list, "get", Integer.valueOf(5));
+        // errors are not wrapped
+        assertThrows("Test Error", OutOfMemoryError.class, new Overloads(), "throwError");
+        // a method that does not exist
+        assertThrows(NoSuchMethodException.class, new Overloads(), "notAMethod");
+        assertThrows(NoSuchMethodException.class, new Overloads(), "value", "a", "b");
+    }
+
+    /**
+     * Test that constructors are resolved by exact parameter types and cached
+     * @throws Throwable
+     */
+    @Test
+    public void testFindConstructor() throws Throwable {
+        System.out.println("findConstructor");
+        ReflectiveInvoker.ConstructorInvoker invoker = ReflectiveInvoker.findConstructor(Double.class, new Class<?>[] {double.class});
+        assertSame(invoker, ReflectiveInvoker.findConstructor(Double.class.getConstructor(double.class)));
+        assertNotSame(invoker, ReflectiveInvoker.findConstructor(Double.class, new Class<?>[] {String.class}));
+        assertEquals(Double.valueOf(2.0), invoker.invoke(null, new Object[] {Double.valueOf(2.0)}));
+        // widening primitive conversions
+        assertNull(invoker.checkArguments(new Object[] {Double.valueOf(1.0)}));
+        assertNull(invoker.checkArguments(new Object[] {Integer.valueOf(1)}));
+        assertNull(invoker.checkArguments(new Object[] {Character.valueOf('a')}));
+        assertEquals("argument type mismatch", invoker.checkArguments(new Object[] {"a"}));
+        assertEquals("argument type mismatch", invoker.checkArguments(new Object[] {null}));
+        assertEquals("argument type mismatch", invoker.checkArguments(new Object[] {Boolean.TRUE}));
+        assertEquals("wrong number of arguments", invoker.checkArguments(new Object[0]));
+        ReflectiveInvoker.ConstructorInvoker charInvoker = ReflectiveInvoker.findConstructor(Character.class, new Class<?>[] {char.class});
+        assertNull(charInvoker.checkArguments(new Object[] {Character.valueOf('a')}));
+        assertEquals("argument type mismatch", charInvoker.checkArguments(new Object[] {Byte.valueOf((byte) 1)}));
+        assertEquals("argument type mismatch", charInvoker.checkArguments(new Object[] {Integer.valueOf(1)}));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import static com.gmail.bertcarnell.assertextensions.NumericAssertExtensions.assertEqualsLRE;
+import java.io.IOException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public class SoftAssertionsTest {
+
+    public SoftAssertionsTest() {
+    }
+
+    private static ExceptionRunnable lre(final double expected, final double actual)
+    {
+        return new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                assertEqualsLRE(expected, actual, 7);
+            }
+        };
+    }
+
+    /**
+     * Test of check and assertAll methods, of class SoftAssertions.
+     */
+    @Test
+    public void testAssertAll() {
+        System.out.println("assertAll");
+        SoftAssertions softly = new SoftAssertions(2);
+        assertTrue(softly.check(lre(1.0, 1.0)));
+        softly.assertAll();
+        assertFalse(softly.check(lre(1.0, 2.0)));
+        assertFalse(softly.check(lre(3.0, 4.0)));
+        assertTrue(softly.check(lre(5.0, 5.0)));
+        assertFalse(softly.check(lre(6.0, 7.0)));
+        assertEquals(3, softly.getFailureCount());
+        try
+        {
+            softly.assertAll();
+            fail("Not thrown");
+        }
+        catch (AssertionError e)
+        {
+            String[] lines = e.getMessage().split("\\r?\\n");
+            assertEquals(4, lines.length);
+            assertEquals("3 assertions failed", lines[0]);
+            assertTrue(lines[1], lines[1].startsWith("1) <LRE: "));
+            assertTrue(lines[2], lines[2].startsWith("2) <LRE: "));
+            assertEquals("and 1 more", lines[3]);
+            assertEquals(2, e.getSuppressed().length);
+        }
+    }
+
+    /**
+     * Test that exceptions other than AssertionError are not collected
+     */
+    @Test
+    public void testCheckThrows() {
+        System.out.println("check throws");
+        SoftAssertions softly = new SoftAssertions();
+        try
+        {
+            softly.check(new ExceptionRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    throw new IllegalStateException("state");
+                }
+            });
+            fail("Not thrown");
+        }
+        catch (IllegalStateException e)
+        {
+            assertEquals("state", e.getMessage());
+        }
+        try
+        {
+            softly.check(new ExceptionRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    throw new IOException("io");
+                }
+            });
+            fail("Not thrown");
+        }
+        catch (RuntimeException e)
+        {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertEquals(0, softly.getFailureCount());
+        softly.assertAll();
+    }
+}
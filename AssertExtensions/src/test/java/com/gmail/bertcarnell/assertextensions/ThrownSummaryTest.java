@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions;
+
+import java.io.IOException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public class ThrownSummaryTest {
+
+    public ThrownSummaryTest() {
+    }
+
+    /**
+     * Test of of method, of class ThrownSummary.
+     */
+    @Test
+    public void testOf() {
+        System.out.println("of");
+        ThrownSummary summary = ThrownSummary.of(new IllegalStateException("outer", new IOException()));
+        assertEquals("java.lang.IllegalStateException: outer; caused by java.io.IOException", summary.toString());
+        assertEquals(summary, ThrownSummary.of(new IllegalStateException("outer", new IOException())));
+        assertEquals(summary.hashCode(), ThrownSummary.of(new IllegalStateException("outer", new IOException())).hashCode());
+        assertFalse(summary.equals(ThrownSummary.of(new IllegalStateException("outer"))));
+        assertNull(ThrownSummary.of(null));
+        // a cycle of causes stops after the limit
+        Exception first = new Exception("first");
+        Exception second = new Exception("second", first);
+        first.initCause(second);
+        int depth = 0;
+        for (ThrownSummary s = ThrownSummary.of(first); s != null; s = s.getCause())
+        {
+            depth++;
+        }
+        assertEquals(ThrownSummary.MAX_CAUSES + 1, depth);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions.benchmarks;
+
+import static com.gmail.bertcarnell.assertextensions.AssertExtensions.assertListEquals;
+import static com.gmail.bertcarnell.assertextensions.AssertExtensions.assertMapEquals;
+import static com.gmail.bertcarnell.assertextensions.AssertExtensions.assertSetEquals;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the collection asserts in <code>AssertExtensions</code>
+ * <p>
+ * Each collection is compared against a copy made of distinct element objects so that every comparison goes
+ * through <code>equals</code>.  The failing case differs only in the last element so that the whole collection
+ * is walked before the assert fails.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AssertExtensionsBenchmark
+{
+    /**
+     * Parameters shared by all of the collection states
+     */
+    @State(Scope.Benchmark)
+    public static class Sizes
+    {
+        /**
+         * number of elements in each collection
+         */
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        /**
+         * <code>pass</code> when the collections are equal, <code>fail</code> when the last element differs
+         */
+        @Param({"pass", "fail"})
+        public String outcome;
+
+        /**
+         * @return the value of the last element of the actual collection
+         */
+        long lastActualValue()
+        {
+            return "pass".equals(outcome) ? size - 1 : -1L;
+        }
+    }
+
+    /**
+     * <code>List</code> inputs
+     */
+    @State(Scope.Benchmark)
+    public static class ListState extends Sizes
+    {
+        List<Long> expected;
+        List<Long> actual;
+
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            expected = new ArrayList<>(size);
+            actual = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+            {
+                expected.add(Long.valueOf(i));
+                actual.add(Long.valueOf(i == size - 1 ? lastActualValue() : i));
+            }
+        }
+    }
+
+    /**
+     * <code>Set</code> inputs
+     */
+    @State(Scope.Benchmark)
+    public static class SetState extends Sizes
+    {
+        Set<Long> expected;
+        Set<Long> actual;
+
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            expected = new HashSet<>(size * 2);
+            actual = new HashSet<>(size * 2);
+            for (int i = 0; i < size; i++)
+            {
+                expected.add(Long.valueOf(i));
+                actual.add(Long.valueOf(i == size - 1 ? lastActualValue() : i));
+            }
+        }
+    }
+
+    /**
+     * <code>Map</code> inputs
+     */
+    @State(Scope.Benchmark)
+    public static class MapState extends Sizes
+    {
+        Map<Long, Long> expected;
+        Map<Long, Long> actual;
+
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            expected = new HashMap<>(size * 2);
+            actual = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++)
+            {
+                expected.put(Long.valueOf(i), Long.valueOf(i));
+                actual.put(Long.valueOf(i), Long.valueOf(i == size - 1 ? lastActualValue() : i));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object assertListEqualsBenchmark(ListState state)
+    {
+        try
+        {
+            assertListEquals(state.expected, state.actual);
+            return state;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object assertSetEqualsBenchmark(SetState state)
+    {
+        try
+        {
+            assertSetEquals(state.expected, state.actual);
+            return state;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object assertMapEqualsBenchmark(MapState state)
+    {
+        try
+        {
+            assertMapEquals(state.expected, state.actual);
+            return state;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions.benchmarks;
+
+import static com.gmail.bertcarnell.assertextensions.ExceptionAssertExtensions.assertThrows;
+import static com.gmail.bertcarnell.assertextensions.ExceptionAssertExtensions.assertThrowsSummary;
+import com.gmail.bertcarnell.assertextensions.ExceptionRunnable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the <code>assertThrows</code> methods in <code>ExceptionAssertExtensions</code>
+ * <p>
+ * The passing case parses <code>"a"</code> which throws a <code>NumberFormatException</code>.  The failing case
+ * parses <code>"1.0"</code> which does not throw, so the assert fails.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionAssertExtensionsBenchmark
+{
+    /**
+     * <code>pass</code> when the expected exception is thrown, <code>fail</code> when nothing is thrown
+     */
+    @Param({"pass", "fail"})
+    public String outcome;
+
+    private String input;
+    private Double target;
+    private ExceptionRunnable closure;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        input = "pass".equals(outcome) ? "a" : "1.0";
+        target = Double.valueOf(0.0);
+        final String closureInput = input;
+        closure = new ExceptionRunnable() {
+            @Override
+            public void run() throws Throwable {
+                Double.parseDouble(closureInput);
+            }
+        };
+    }
+
+    @Benchmark
+    public Object assertThrowsClosure()
+    {
+        try
+        {
+            assertThrows(NumberFormatException.class, closure);
+            return closure;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object assertThrowsClosureWithMessage()
+    {
+        try
+        {
+            assertThrows("For input string: \"a\"", NumberFormatException.class, closure);
+            return closure;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object assertThrowsSummaryClosure()
+    {
+        try
+        {
+            return assertThrowsSummary(NumberFormatException.class, closure);
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object assertThrowsReflective()
+    {
+        try
+        {
+            assertThrows(NumberFormatException.class, target, "parseDouble", input);
+            return target;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object assertThrowsReflectiveWithMessage()
+    {
+        try
+        {
+            assertThrows("For input string: \"a\"", NumberFormatException.class, target, "parseDouble", input);
+            return target;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions.benchmarks;
+
+import static com.gmail.bertcarnell.assertextensions.NumericAssertExtensions.assertEqualsLRE;
+import static com.gmail.bertcarnell.assertextensions.NumericAssertExtensions.assertEqualsUlps;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the <code>assertEqualsLRE</code> and <code>assertEqualsUlps</code> methods in
+ * <code>NumericAssertExtensions</code>
+ * <p>
+ * The values agree to 7 significant digits.  The passing case asks for 7 digits of agreement and the failing
+ * case asks for 9.  The array elements differ by a relative error of <code>1E-9</code>, which is within both 7 digits
+ * and <code>2^24</code> ULPs.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumericAssertExtensionsBenchmark
+{
+    /**
+     * <code>pass</code> when the values agree to the requested LRE, <code>fail</code> otherwise
+     */
+    @Param({"pass", "fail"})
+    public String outcome;
+
+    private int lre;
+    private double expectedDouble;
+    private double actualDouble;
+    private BigDecimal expectedBigDecimal;
+    private BigDecimal actualBigDecimal;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        lre = "pass".equals(outcome) ? 7 : 9;
+        expectedDouble = 1234.5678;
+        actualDouble = 1234.5679;
+        expectedBigDecimal = new BigDecimal("1234.5678");
+        actualBigDecimal = new BigDecimal("1234.5679");
+    }
+
+    /**
+     * Array inputs for the array <code>assertEqualsLRE</code>
+     */
+    @State(Scope.Benchmark)
+    public static class ArrayState
+    {
+        /**
+         * number of elements in each array
+         */
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        /**
+         * <code>pass</code> when every element agrees to the requested LRE, <code>fail</code> when the last does not
+         */
+        @Param({"pass", "fail"})
+        public String outcome;
+
+        double[] expected;
+        double[] actual;
+
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            expected = new double[size];
+            actual = new double[size];
+            for (int i = 0; i < size; i++)
+            {
+                expected[i] = 1234.5678 + i;
+                actual[i] = expected[i] * (1.0 + 1E-9);
+            }
+            if ("fail".equals(outcome))
+            {
+                actual[size - 1] = expected[size - 1] * 1.001;
+            }
+        }
+    }
+
+    @Benchmark
+    public Object assertEqualsLREDoubleArray(ArrayState state)
+    {
+        try
+        {
+            assertEqualsLRE(state.expected, state.actual, 7);
+            return state;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object assertEqualsUlpsDoubleArray(ArrayState state)
+    {
+        try
+        {
+            assertEqualsUlps(state.expected, state.actual, 1L << 24);
+            return state;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object assertEqualsLREDouble()
+    {
+        try
+        {
+            assertEqualsLRE(expectedDouble, actualDouble, lre);
+            return this;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object assertEqualsLREBigDecimal()
+    {
+        try
+        {
+            assertEqualsLRE(expectedBigDecimal, actualBigDecimal, lre);
+            return this;
+        }
+        catch (AssertionError e)
+        {
+            return e;
+        }
+    }
+}
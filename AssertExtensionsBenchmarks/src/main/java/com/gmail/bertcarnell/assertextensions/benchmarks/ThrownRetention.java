@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions.benchmarks;
+
+import static com.gmail.bertcarnell.assertextensions.ExceptionAssertExtensions.assertThrowsAndDoAssertsInCatch;
+import static com.gmail.bertcarnell.assertextensions.ExceptionAssertExtensions.assertThrowsSummary;
+import com.gmail.bertcarnell.assertextensions.ExceptionAssertionsPerformer;
+import com.gmail.bertcarnell.assertextensions.ExceptionRunnable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap retained when the outcome of many failing cases is kept in one JVM.  Retained heap is not
+ * something JMH reports, so this is a plain program instead of a benchmark.
+ * <p>
+ * Each case throws an exception from a deep stack.  The <code>throwable</code> mode keeps each exception from
+ * <code>performAssertionsAfterCatch</code>, as a property-based test does when it collects its cases, and the
+ * <code>summary</code> mode keeps the <code>ThrownSummary</code> from <code>assertThrowsSummary</code>.  Run it with
+ * </p>
+ * <pre>
+ * java -Xmx4g -cp AssertExtensionsBenchmarks/target/benchmarks.jar \
+ *     com.gmail.bertcarnell.assertextensions.benchmarks.ThrownRetention summary 1000000
+ * </pre>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public final class ThrownRetention
+{
+    /**
+     * the depth of the stack when each exception is thrown
+     */
+    private static final int STACK_DEPTH = 64;
+
+    private ThrownRetention()
+    {
+    }
+
+    /**
+     * @param args the mode, <code>throwable</code> or <code>summary</code>, and optionally the number of cases
+     */
+    public static void main(String[] args)
+    {
+        if (args.length < 1 || !("throwable".equals(args[0]) || "summary".equals(args[0])))
+        {
+            System.err.println("usage: ThrownRetention throwable|summary [cases]");
+            System.exit(1);
+        }
+        boolean summary = "summary".equals(args[0]);
+        int cases = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        long before = usedHeap();
+        long start = System.nanoTime();
+        final List<Object> kept = new ArrayList<Object>(cases);
+        for (int i = 0; i < cases; i++)
+        {
+            final int value = i;
+            if (summary)
+            {
+                kept.add(assertThrowsSummary(IllegalArgumentException.class, new ExceptionRunnable() {
+                    @Override
+                    public void run() throws Throwable {
+                        throwFrom(STACK_DEPTH, value);
+                    }
+                }));
+            }
+            else
+            {
+                assertThrowsAndDoAssertsInCatch(IllegalArgumentException.class,
+                        new ExceptionAssertionsPerformer<IllegalArgumentException>() {
+                    @Override
+                    public void performThrowingAction() throws Throwable {
+                        throwFrom(STACK_DEPTH, value);
+                    }
+
+                    @Override
+                    public void performAssertionsAfterCatch(IllegalArgumentException th) {
+                        kept.add(th);
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long retained = usedHeap() - before;
+        System.out.printf("%s: %d cases in %d ms, %d MB retained, %d bytes per case%n", args[0], kept.size(),
+                elapsed / 1000000L, retained >> 20, retained / Math.max(1, kept.size()));
+    }
+
+    /**
+     * @param depth the number of frames to add before throwing
+     * @param value the value that is rejected
+     */
+    private static void throwFrom(int depth, int value)
+    {
+        if (depth == 0)
+        {
+            throw new IllegalArgumentException("rejected " + value);
+        }
+        throwFrom(depth - 1, value);
+    }
+
+    /**
+     * @return the heap in use after a collection
+     */
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+        {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event for one call to an assert, begun and committed by {@link JfrAssertionListener}
+ * <p>
+ * The event starts when the assert starts and ends when it finishes, so it lines up with the garbage collection and
+ * allocation events recorded at the same time.  Only calls at least as long as the threshold of the event setting are
+ * recorded, which is 20 ms unless the recording sets another one.
+ * </p>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+@Name(AssertionEvent.NAME)
+@Label("Assertion")
+@Category({"AssertExtensions"})
+@Description("A call to an assert method of AssertExtensions")
+@StackTrace(true)
+@Threshold("20 ms")
+public class AssertionEvent extends Event
+{
+    /**
+     * The name of the event type
+     */
+    public static final String NAME = "com.gmail.bertcarnell.assertextensions.Assertion";
+
+    @Label("Method")
+    @Description("The name of the assert method")
+    String method;
+
+    @Label("Size")
+    @Description("The number of elements in the expected input, 1 for a single value, or -1 if it is not known")
+    long size;
+
+    @Label("Failed")
+    boolean failed;
+}
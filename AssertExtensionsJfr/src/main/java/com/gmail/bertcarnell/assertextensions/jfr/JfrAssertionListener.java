@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions.jfr;
+
+import com.gmail.bertcarnell.assertextensions.AssertionListener;
+import com.gmail.bertcarnell.assertextensions.AssertionMetrics;
+import java.util.ArrayDeque;
+
+/**
+ * Records calls to the asserts as {@link AssertionEvent} Java Flight Recorder events
+ * <p>
+ * The event is begun when the assert starts and ended when it finishes.  Which calls are recorded is decided by the
+ * enabled and threshold settings of the event in the recording, like the events of the JDK.  The listener is
+ * installed with {@link #install()}, and does not need {@link AssertionMetrics} to be enabled:
+ * </p>
+ * <pre>
+ * JfrAssertionListener.install();
+ * </pre>
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public final class JfrAssertionListener implements AssertionListener
+{
+    /**
+     * The events of the asserts running on each thread, innermost first
+     */
+    private final ThreadLocal<ArrayDeque<AssertionEvent>> events = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Add a listener to {@link AssertionMetrics}
+     *
+     * @return the listener, which can be passed to <code>AssertionMetrics.removeListener</code>
+     */
+    public static JfrAssertionListener install()
+    {
+        JfrAssertionListener listener = new JfrAssertionListener();
+        AssertionMetrics.addListener(listener);
+        return listener;
+    }
+
+    @Override
+    public void assertionStarted(String methodName)
+    {
+        AssertionEvent event = new AssertionEvent();
+        event.begin();
+        events.get().push(event);
+    }
+
+    @Override
+    public void assertionCompleted(String methodName, long size, long durationNanos, boolean failed)
+    {
+        // a call that started before the listener was added has no event
+        AssertionEvent event = events.get().poll();
+        if (event == null)
+        {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.method = methodName;
+            event.size = size;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+}
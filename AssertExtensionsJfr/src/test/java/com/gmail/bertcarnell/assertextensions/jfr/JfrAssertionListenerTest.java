@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2013 Robert Carnell
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gmail.bertcarnell.assertextensions.jfr;
+
+import static com.gmail.bertcarnell.assertextensions.AssertExtensions.assertListEquals;
+import static com.gmail.bertcarnell.assertextensions.NumericAssertExtensions.assertEqualsLRE;
+import com.gmail.bertcarnell.assertextensions.AssertionMetrics;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Robert Carnell (bertcarnell@gmail.com)
+ */
+public class JfrAssertionListenerTest {
+
+    public JfrAssertionListenerTest() {
+    }
+
+    /**
+     * Test that asserts are recorded as events that span the call
+     * @throws Exception
+     */
+    @Test
+    public void testAssertionCompleted() throws Exception {
+        System.out.println("assertionCompleted");
+        List<Integer> large = new ArrayList<>();
+        for (int i = 0; i < 1000000; i++)
+        {
+            large.add(i);
+        }
+        Path file = Files.createTempFile("JfrAssertionListenerTest", ".jfr");
+        JfrAssertionListener listener = JfrAssertionListener.install();
+        // the listener does not enable metrics
+        assertFalse(AssertionMetrics.isEnabled());
+        try (Recording recording = new Recording())
+        {
+            recording.enable(AssertionEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            Instant before = Instant.now();
+            assertListEquals(large, new ArrayList<>(large));
+            Instant after = Instant.now();
+            try
+            {
+                assertEqualsLRE(1.0, 2.0, 7);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                // expected
+            }
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(2, events.size());
+            assertEquals("assertListEquals", events.get(0).getString("method"));
+            assertEquals(1000000L, events.get(0).getLong("size"));
+            assertFalse(events.get(0).getBoolean("failed"));
+            assertTrue(events.get(0).getDuration().toNanos() > 0);
+            assertFalse(events.get(0).getStartTime().isBefore(before.minusMillis(1)));
+            assertFalse(events.get(0).getEndTime().isAfter(after.plusMillis(1)));
+            assertEquals("assertEqualsLRE", events.get(1).getString("method"));
+            assertTrue(events.get(1).getBoolean("failed"));
+        }
+        finally
+        {
+            AssertionMetrics.removeListener(listener);
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test that asserts shorter than the threshold are not recorded
+     * @throws Exception
+     */
+    @Test
+    public void testThreshold() throws Exception {
+        System.out.println("threshold");
+        Path file = Files.createTempFile("JfrAssertionListenerTest", ".jfr");
+        JfrAssertionListener listener = JfrAssertionListener.install();
+        try (Recording recording = new Recording())
+        {
+            recording.enable(AssertionEvent.NAME).withThreshold(Duration.ofHours(1));
+            recording.start();
+            assertListEquals(Arrays.asList(1, 2), Arrays.asList(1, 2));
+            try
+            {
+                assertEqualsLRE(1.0, 2.0, 7);
+                fail("Not thrown");
+            }
+            catch (AssertionError e)
+            {
+                // expected
+            }
+            recording.stop();
+            recording.dump(file);
+            assertTrue(RecordingFile.readAllEvents(file).isEmpty());
+        }
+        finally
+        {
+            AssertionMetrics.removeListener(listener);
+            Files.delete(file);
+        }
+    }
+}